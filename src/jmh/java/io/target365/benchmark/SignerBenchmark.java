@@ -0,0 +1,78 @@
+package io.target365.benchmark;
+
+import io.target365.service.CombEcdsaSigner;
+import io.target365.service.EcdsaSigner;
+import io.target365.service.PrecomputedEcdsaSigner;
+import io.target365.service.Signer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the signing engines of {@code Target365Client.Parameters.SigningEngine} on a typical signed message.
+ * The precomputed engine is measured with a pool which is refilled by a single background thread, so under sustained
+ * load it shows the rate that thread keeps up with rather than the cost of a single signature from a full pool
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignerBenchmark {
+
+    private static final byte[] MESSAGE = ("posthttps://shared.target365.io/api/out-messages1700000000"
+        + "5d2b0f3e-6c1a-4f2e-9a3b-1f0e2d3c4b5aq3UiLUOu1tCNsV8PdfaGtYzEBZkDcPL5mUm7X1Xmc7s=").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"JCA", "COMB", "PRECOMPUTED"})
+    private String engine;
+
+    private ExecutorService executor;
+    private Signer signer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final String ecPrivateKeyAsString = String.join("", Files.readAllLines(
+            Paths.get(getClass().getClassLoader().getResource("private.key").toURI()), StandardCharsets.UTF_8));
+
+        executor = Executors.newSingleThreadExecutor();
+
+        switch (engine) {
+            case "COMB":
+                signer = CombEcdsaSigner.getInstance(ecPrivateKeyAsString);
+                break;
+            case "PRECOMPUTED":
+                signer = PrecomputedEcdsaSigner.getInstance(ecPrivateKeyAsString, executor);
+                break;
+            default:
+                signer = EcdsaSigner.getInstance(ecPrivateKeyAsString);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public String sign() {
+        return signer.sign(MESSAGE, 0, MESSAGE.length);
+    }
+}
@@ -0,0 +1,8 @@
+package io.target365.client;
+
+/**
+ * Client returning {@link java.util.concurrent.CompletableFuture} from every method, so that calls can be composed
+ * without blocking on {@link java.util.concurrent.Future#get()}
+ */
+public interface AsyncClient extends Client, AsyncPingClient, AsyncKeywordClient, AsyncLookupClient, AsyncStrexClient,
+        AsyncOutMessageClient, AsyncInMessageClient, AsyncVerificationClient, AsyncPublicKeysClient, AsyncPincodeClient { }
@@ -0,0 +1,20 @@
+package io.target365.client;
+
+import io.target365.dto.InMessage;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncInMessageClient extends InMessageClient {
+
+    /**
+     * Gets an in-message.
+     *
+     * @param shortNumberId Short number id.
+     * @param transactionId Message transaction id.
+     * @return An in-message.
+     */
+    @Override
+    CompletableFuture<InMessage> getInMessage(@NotNull final String shortNumberId, @NotNull final String transactionId);
+
+}
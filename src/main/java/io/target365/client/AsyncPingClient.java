@@ -0,0 +1,13 @@
+package io.target365.client;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPingClient extends PingClient {
+    /**
+     * Performs a test to see if the service endpoint is responding.
+     *
+     * @return A simple string response 'pong'.
+     */
+    @Override
+    CompletableFuture<String> getPing();
+}
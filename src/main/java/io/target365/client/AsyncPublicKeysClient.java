@@ -0,0 +1,46 @@
+package io.target365.client;
+
+import io.target365.dto.PublicKey;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPublicKeysClient extends PublicKeysClient {
+
+    /**
+     * Gets a server public key.
+     *
+     * @param keyName Public key name.
+     * @return A server public key.
+     */
+    @Override
+    CompletableFuture<PublicKey> getServerPublicKey(@NotNull final String keyName);
+
+    /**
+     * Gets all client public key.
+     *
+     * @return Lists all client public key.
+     */
+    @Override
+    CompletableFuture<List<PublicKey>> getClientPublicKeys();
+
+    /**
+     * Gets a client public key.
+     *
+     * @param keyName Public key name.
+     * @return A client public key.
+     */
+    @Override
+    CompletableFuture<PublicKey> getClientPublicKey(@NotNull final String keyName);
+
+    /**
+     * Deletes a client public key.
+     *
+     * @param keyName Public key name.
+     * @return Void
+     */
+    @Override
+    CompletableFuture<Void> deleteClientPublicKey(@NotNull final String keyName);
+
+}
@@ -0,0 +1,15 @@
+package io.target365.client;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncVerificationClient extends VerificationClient {
+
+    @Override
+    CompletableFuture<Boolean> verifySignature(
+        @NotNull final String method, @NotNull final String uri, @NotNull final String content,
+        @NotNull @Pattern(regexp = X_ECDSA_SIGNATURE_PATTERN) final String xEcdsaSignatureString
+    );
+}
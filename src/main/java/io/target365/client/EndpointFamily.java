@@ -0,0 +1,34 @@
+package io.target365.client;
+
+import java.util.Arrays;
+
+/**
+ * Family of endpoints which share health, e.g. for circuit breaking
+ */
+public enum EndpointFamily {
+
+    OUT_MESSAGES("api/out-messages", "api/export/out-messages", "api/prepare-msisdns"),
+    STREX("api/strex", "api/one-click"),
+    LOOKUP("api/lookup"),
+    KEYWORDS("api/keywords"),
+    PUBLIC_KEYS("api/public-key", "api/server/public-keys", "api/client/public-keys"),
+    OTHER;
+
+    private final String[] prefixes;
+
+    EndpointFamily(final String... prefixes) {
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * Gets family of the endpoint
+     *
+     * @param path Path of the endpoint (should <b>not</b> include base URL)
+     * @return Family of the endpoint, {@link #OTHER} if it does not belong to any other family
+     */
+    public static EndpointFamily of(final String path) {
+        return Arrays.stream(values())
+                .filter(family -> Arrays.stream(family.prefixes).anyMatch(path::startsWith))
+                .findFirst().orElse(OTHER);
+    }
+}
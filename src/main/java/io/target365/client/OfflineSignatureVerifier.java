@@ -0,0 +1,385 @@
+package io.target365.client;
+
+import io.target365.dto.PublicKey;
+import io.target365.service.AuthorizationService;
+import io.target365.service.EcdsaAuthorizationService;
+import io.target365.service.EcdsaVerifier;
+import io.target365.service.Jsr303ValidationService.TimestampValidator;
+import io.target365.service.NonceCache;
+import io.target365.service.Verifier;
+import io.target365.util.Threads;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies signatures of requests forwarded by the server, e.g. in a webhook, without calling the server.
+ * Server keys of the given names and all client keys are loaded when the verifier is created and reloaded in the
+ * background, so a deleted or revoked key is rejected after the next reload. A request signed with a key which is not loaded
+ * is rejected, and the key is fetched once in the background, so that requests signed with it are accepted shortly after.
+ * A key which is not found is not fetched again until the next reload. With a {@link NonceCache} a request whose nonce was
+ * already seen is rejected as a replay
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OfflineSignatureVerifier implements Closeable {
+
+    /**
+     * Default time in milliseconds between reloads of the keys
+     */
+    public static final long DEFAULT_REFRESH_INTERVAL = 600_000;
+
+    /**
+     * Maximum number of recent key names which were not found and are not fetched again until the next reload
+     */
+    private static final int MAX_MISSES = 1_000;
+
+    /**
+     * Maximum number of keys fetched at the same time, so that requests signed with random key names cannot flood the server
+     */
+    private static final int MAX_FETCHES = 16;
+
+    /**
+     * Maximum age of a signed request in seconds
+     */
+    private static final long MAX_AGE = 5 * 60;
+
+    private static final Pattern X_ECDSA_SIGNATURE = Pattern.compile(VerificationClient.X_ECDSA_SIGNATURE_PATTERN);
+
+    private final AsyncPublicKeysClient client;
+    private final AuthorizationService authorizationService;
+    private final NonceCache nonces;
+    private final Set<String> serverKeyNames;
+    private final AtomicReference<ConcurrentMap<String, Verifier>> verifiers;
+    private final ConcurrentMap<String, Verifier> fetched;
+    private final ConcurrentMap<String, CompletableFuture<Void>> fetches;
+    private final Semaphore fetchPermits;
+    private final Map<String, Boolean> misses;
+    private final AtomicReference<CompletableFuture<Void>> preloaded;
+    private final AtomicReference<ScheduledFuture<?>> refresher;
+    private final AtomicBoolean closed;
+
+    /**
+     * Verifies the signature of the request using the loaded keys only
+     *
+     * @param method                HTTP method of the request
+     * @param uri                   Full URI of the request
+     * @param content               Body of the request
+     * @param xEcdsaSignatureString Value of the X-ECDSA-Signature header
+     * @return true if the request is signed with a loaded key, not too old and not a replay, otherwise false
+     */
+    public boolean verify(final String method, final String uri, final String content, final String xEcdsaSignatureString) {
+        if (method == null || uri == null || content == null || xEcdsaSignatureString == null
+                || !X_ECDSA_SIGNATURE.matcher(xEcdsaSignatureString).matches()) {
+            return false;
+        }
+
+        final String[] parts = xEcdsaSignatureString.split(":");
+        final String keyName = parts[0];
+        final long timestamp;
+
+        try {
+            timestamp = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        if (!TimestampValidator.of("timestamp", timestamp, MAX_AGE).valid().isEmpty()) {
+            return false;
+        }
+
+        final Verifier verifier = verifiers.get().get(keyName);
+
+        if (verifier == null) {
+            fetch(keyName);
+            return false;
+        }
+
+        // Only nonces of valid signatures are remembered, so that forged requests cannot fill the cache
+        return authorizationService.verifyHeader(verifier, method, uri, timestamp, parts[2], content, parts[3])
+                && (nonces == null || nonces.add(keyName, parts[2], timestamp));
+    }
+
+    /**
+     * Gets the initial load of the keys, e.g. to wait for it before requests are accepted
+     *
+     * @return {@link CompletableFuture} which completes once the keys are loaded
+     */
+    public CompletableFuture<Void> preloaded() {
+        return preloaded.get();
+    }
+
+    /**
+     * Reloads server keys of the known names and all client keys, which replace the loaded keys once all of them are reloaded.
+     * Keys which are no longer found are dropped, keys which could not be reloaded are kept, as well as keys which were
+     * fetched while the reload was in flight
+     *
+     * @return {@link CompletableFuture} which completes once the keys are reloaded
+     */
+    public CompletableFuture<Void> refresh() {
+        fetched.clear();
+
+        final Map<String, Verifier> current = verifiers.get();
+        final Set<String> names = new HashSet<>(serverKeyNames);
+        final ConcurrentMap<String, Verifier> reloaded = new ConcurrentHashMap<>();
+        final List<CompletableFuture<?>> calls = new ArrayList<>();
+        final List<CompletableFuture<?>> loads = new ArrayList<>();
+
+        final CompletableFuture<List<PublicKey>> clientKeys = client.getClientPublicKeys();
+        calls.add(clientKeys);
+        loads.add(clientKeys.handle((publicKeys, throwable) -> {
+            if (throwable == null) {
+                Optional.ofNullable(publicKeys).ifPresent(keys -> keys.forEach(publicKey -> put(reloaded, publicKey)));
+            } else {
+                current.forEach((keyName, verifier) -> {
+                    if (!names.contains(keyName)) {
+                        reloaded.putIfAbsent(keyName, verifier);
+                    }
+                });
+            }
+
+            return null;
+        }));
+
+        names.forEach(keyName -> {
+            final CompletableFuture<PublicKey> serverKey = client.getServerPublicKey(keyName);
+            calls.add(serverKey);
+            loads.add(serverKey.handle((publicKey, throwable) -> {
+                if (throwable == null) {
+                    put(reloaded, publicKey);
+                } else {
+                    Optional.ofNullable(current.get(keyName)).ifPresent(verifier -> reloaded.put(keyName, verifier));
+                }
+
+                return null;
+            }));
+        });
+
+        // Failed loads are still reported, after the keys which could be reloaded are in place
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> swap(reloaded))
+                .thenCompose(ignored -> CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])));
+    }
+
+    /**
+     * Stops reloading the keys
+     */
+    @Override
+    public void close() {
+        closed.set(true);
+        Optional.ofNullable(refresher.get()).ifPresent(scheduled -> scheduled.cancel(false));
+    }
+
+    /**
+     * Replaces the loaded keys with the reloaded ones
+     *
+     * @param reloaded Reloaded keys
+     */
+    private void swap(final ConcurrentMap<String, Verifier> reloaded) {
+        verifiers.set(reloaded);
+
+        // Keys fetched during the reload are newer than the reloaded ones. Fetches which complete after the swap
+        // put their keys into the reloaded map themselves, see fetch(String)
+        fetched.forEach(reloaded::putIfAbsent);
+        misses.clear();
+    }
+
+    /**
+     * Schedules the next reload of the keys on the executor, once the previous reload has completed
+     *
+     * @param refreshInterval Time between reloads of the keys
+     * @param unit            Unit of the time between reloads
+     * @param executor        Executor which starts the reload, so that the shared scheduler is never blocked by the client calls
+     */
+    private void scheduleRefresh(final long refreshInterval, final TimeUnit unit, final Executor executor) {
+        final ScheduledFuture<?> scheduled = Threads.schedule(() -> {
+            if (closed.get()) {
+                return;
+            }
+
+            CompletableFuture<Void> refresh;
+
+            try {
+                refresh = refresh();
+            } catch (Throwable t) {
+                // Failed reload must not stop the next ones
+                refresh = CompletableFuture.completedFuture(null);
+            }
+
+            refresh.whenComplete((ignored, throwable) -> scheduleRefresh(refreshInterval, unit, executor));
+        }, refreshInterval, unit, executor);
+
+        refresher.set(scheduled);
+
+        if (closed.get()) {
+            scheduled.cancel(false);
+        }
+    }
+
+    /**
+     * Fetches the key in the background, unless it is already being fetched, was not found since the last reload
+     * or too many keys are being fetched
+     *
+     * @param keyName Key name
+     */
+    private void fetch(final String keyName) {
+        if (misses.get(keyName) != null) {
+            return;
+        }
+
+        final CompletableFuture<Void> fetch = new CompletableFuture<>();
+
+        if (fetches.putIfAbsent(keyName, fetch) != null) {
+            return;
+        }
+
+        if (!fetchPermits.tryAcquire()) {
+            fetches.remove(keyName, fetch);
+            fetch.complete(null);
+            return;
+        }
+
+        client.getServerPublicKey(keyName)
+                .thenCompose(publicKey -> {
+                    if (publicKey == null) {
+                        return client.getClientPublicKey(keyName);
+                    }
+
+                    // Only server keys are reloaded by name, client keys are reloaded with all the others
+                    serverKeyNames.add(keyName);
+                    return CompletableFuture.completedFuture(publicKey);
+                })
+                .whenComplete((publicKey, throwable) -> {
+                    if (publicKey != null) {
+                        // Fetched key is recorded before it is put, so that a reload which swaps the keys meanwhile keeps it
+                        put(fetched, publicKey);
+                        Optional.ofNullable(fetched.get(keyName)).ifPresent(verifier -> verifiers.get().put(keyName, verifier));
+                    } else if (throwable == null) {
+                        misses.put(keyName, Boolean.TRUE);
+                    }
+
+                    fetchPermits.release();
+                    fetches.remove(keyName, fetch);
+                    fetch.complete(null);
+                });
+    }
+
+    private static void put(final Map<String, Verifier> verifiers, final PublicKey publicKey) {
+        if (publicKey != null && publicKey.getName() != null && publicKey.getPublicKeyString() != null) {
+            try {
+                verifiers.put(publicKey.getName(), EcdsaVerifier.getInstance(publicKey.getPublicKeyString()));
+            } catch (RuntimeException e) {
+                // Key which cannot be parsed does not keep the other keys from loading
+            }
+        }
+    }
+
+    /**
+     * Gets a new verifier, which reloads keys every {@link #DEFAULT_REFRESH_INTERVAL} milliseconds
+     *
+     * @param client         Client which loads the keys
+     * @param serverKeyNames Names of the server keys requests are signed with
+     * @return A verifier
+     */
+    public static OfflineSignatureVerifier getInstance(final AsyncPublicKeysClient client, final Collection<String> serverKeyNames) {
+        return getInstance(client, serverKeyNames, DEFAULT_REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets a new verifier and starts loading the keys
+     *
+     * @param client          Client which loads the keys
+     * @param serverKeyNames  Names of the server keys requests are signed with
+     * @param refreshInterval Time between reloads of the keys
+     * @param unit            Unit of the time between reloads
+     * @return A verifier
+     */
+    public static OfflineSignatureVerifier getInstance(
+            final AsyncPublicKeysClient client, final Collection<String> serverKeyNames, final long refreshInterval, final TimeUnit unit
+    ) {
+        return getInstance(client, serverKeyNames, refreshInterval, unit, null);
+    }
+
+    /**
+     * Gets a new verifier and starts loading the keys
+     *
+     * @param client          Client which loads the keys
+     * @param serverKeyNames  Names of the server keys requests are signed with
+     * @param refreshInterval Time between reloads of the keys
+     * @param unit            Unit of the time between reloads
+     * @param nonces          Nonces of the verified requests, no replay protection if <code>null</code>
+     * @return A verifier
+     */
+    public static OfflineSignatureVerifier getInstance(
+            final AsyncPublicKeysClient client, final Collection<String> serverKeyNames, final long refreshInterval, final TimeUnit unit,
+            final NonceCache nonces
+    ) {
+        return getInstance(client, serverKeyNames, refreshInterval, unit, nonces, Threads.defaultExecutor());
+    }
+
+    /**
+     * Gets a new verifier and starts loading the keys
+     *
+     * @param client          Client which loads the keys
+     * @param serverKeyNames  Names of the server keys requests are signed with
+     * @param refreshInterval Time between reloads of the keys
+     * @param unit            Unit of the time between reloads
+     * @param nonces          Nonces of the verified requests, no replay protection if <code>null</code>
+     * @param executor        Executor which starts the reloads, e.g. the executor of the client
+     * @return A verifier
+     */
+    public static OfflineSignatureVerifier getInstance(
+            final AsyncPublicKeysClient client, final Collection<String> serverKeyNames, final long refreshInterval, final TimeUnit unit,
+            final NonceCache nonces, final Executor executor
+    ) {
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        names.addAll(serverKeyNames);
+
+        final OfflineSignatureVerifier verifier = new OfflineSignatureVerifier(client, new EcdsaAuthorizationService(), nonces, names,
+                new AtomicReference<>(new ConcurrentHashMap<>()), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new Semaphore(MAX_FETCHES), Collections.synchronizedMap(new Misses()), new AtomicReference<>(), new AtomicReference<>(),
+                new AtomicBoolean());
+
+        verifier.preloaded.set(verifier.refresh());
+        verifier.scheduleRefresh(refreshInterval, unit, executor);
+
+        return verifier;
+    }
+
+    /**
+     * Key names which were not found, the least recently seen one is dropped once there are too many
+     */
+    private static final class Misses extends LinkedHashMap<String, Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private Misses() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_MISSES;
+        }
+    }
+
+}
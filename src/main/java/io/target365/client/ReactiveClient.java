@@ -0,0 +1,27 @@
+package io.target365.client;
+
+import io.target365.dto.LookupResult;
+import io.target365.dto.OutMessage;
+import org.reactivestreams.Publisher;
+
+public interface ReactiveClient {
+
+    /**
+     * Posts out-messages as they are published. Out-messages are requested from the publisher only while
+     * the number of messages in flight is below the concurrency limit, so any number of messages could be posted
+     * without queueing them in memory.
+     *
+     * @param outMessages Publisher of out-messages to post.
+     * @return Publisher of resource uris of created out-messages, in completion order.
+     */
+    Publisher<String> postOutMessages(final Publisher<OutMessage> outMessages);
+
+    /**
+     * Looks up addresses of MSISDNs as they are published, see {@link #postOutMessages(Publisher)} for flow control.
+     *
+     * @param msisdns Publisher of MSISDNs to lookup.
+     * @return Publisher of lookup results, in completion order.
+     */
+    Publisher<LookupResult> addressLookups(final Publisher<String> msisdns);
+
+}
@@ -0,0 +1,60 @@
+package io.target365.client;
+
+import io.target365.dto.LookupResult;
+import io.target365.dto.OutMessage;
+import io.target365.reactive.AsyncMapPublisher;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.reactivestreams.Publisher;
+
+/**
+ * Reactive Streams facade of an {@link AsyncClient}. On Java 9 or later publishers could be adapted
+ * to {@code java.util.concurrent.Flow} with {@code org.reactivestreams.FlowAdapters}
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ReactiveTarget365Client implements ReactiveClient {
+
+    /**
+     * Default maximum number of calls in flight per publisher
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+    private final AsyncClient client;
+    private final int maxConcurrency;
+
+    @Override
+    public Publisher<String> postOutMessages(final Publisher<OutMessage> outMessages) {
+        return new AsyncMapPublisher<>(outMessages, client::postOutMessage, maxConcurrency);
+    }
+
+    @Override
+    public Publisher<LookupResult> addressLookups(final Publisher<String> msisdns) {
+        return new AsyncMapPublisher<>(msisdns, client::addressLookup, maxConcurrency);
+    }
+
+    /**
+     * Gets a new reactive client with {@link #DEFAULT_MAX_CONCURRENCY}
+     *
+     * @param client Client which executes the calls
+     * @return A reactive client
+     */
+    public static ReactiveTarget365Client getInstance(final AsyncClient client) {
+        return getInstance(client, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Gets a new reactive client
+     *
+     * @param client         Client which executes the calls
+     * @param maxConcurrency Maximum number of calls in flight per publisher
+     * @return A reactive client
+     * @throws IllegalArgumentException if maxConcurrency is not positive
+     */
+    public static ReactiveTarget365Client getInstance(final AsyncClient client, final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        return new ReactiveTarget365Client(client, maxConcurrency);
+    }
+}
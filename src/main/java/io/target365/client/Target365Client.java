@@ -1,11 +1,11 @@
 package io.target365.client;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.target365.dto.*;
 import io.target365.dto.enums.UserValidity;
+import io.target365.exception.InvalidResponseException;
 import io.target365.handler.CreatedResponseParser;
 import io.target365.handler.InvalidResponseHandler;
 import io.target365.handler.NotFoundResponseParser;
@@ -13,6 +13,7 @@ import io.target365.handler.OkResponseParser;
 import io.target365.handler.ResponseHandler;
 import io.target365.handler.ResponseParser;
 import io.target365.service.AuthorizationService;
+import io.target365.service.CombEcdsaSigner;
 import io.target365.service.EcdsaAuthorizationService;
 import io.target365.service.EcdsaSigner;
 import io.target365.service.EcdsaVerifier;
@@ -25,34 +26,67 @@ import io.target365.service.Jsr303ValidationService.NotNullValidator;
 import io.target365.service.Jsr303ValidationService.PatternValidator;
 import io.target365.service.Jsr303ValidationService.TimestampValidator;
 import io.target365.service.Jsr303ValidationService.ValidValidator;
+import io.target365.service.NonceCache;
 import io.target365.service.ObjectMappingService;
+import io.target365.service.PrecomputedEcdsaSigner;
 import io.target365.service.Signer;
 import io.target365.service.ValidationService;
+import io.target365.service.Verifier;
+import io.target365.transport.AdaptiveConcurrencyLimiter;
+import io.target365.transport.AdaptiveLimitPolicy;
+import io.target365.transport.BlockingTransport;
+import io.target365.transport.CachePolicy;
+import io.target365.transport.CircuitBreaker;
+import io.target365.transport.CircuitBreakerPolicy;
+import io.target365.transport.ConcurrencyLimiter;
+import io.target365.transport.FixedConcurrencyLimiter;
+import io.target365.transport.HedgePolicy;
+import io.target365.transport.Hedger;
+import io.target365.transport.NonBlockingTransport;
+import io.target365.transport.RateLimitPolicy;
+import io.target365.transport.RateLimiter;
+import io.target365.transport.RefreshingCache;
+import io.target365.transport.SingleFlight;
+import io.target365.transport.RetryPolicy;
+import io.target365.transport.Transport;
+import io.target365.util.Threads;
 import io.target365.util.Util;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.experimental.UtilityClass;
 import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
+import java.io.InterruptedIOException;
 import java.net.URLEncoder;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class Target365Client implements Client {
+public class Target365Client implements AsyncClient {
 
     /**
      * In order to simulate {@link Void} response, we need to return <code>null</code>
@@ -61,10 +95,21 @@ public class Target365Client implements Client {
     private static final String sdkName = "Java";
     private static final String sdkVersion = "1.8.10";
     private static final Void VOID = null;
+    private static final byte[] NO_CONTENT = new byte[0];
 
     private final Parameters parameters;
 
     private final OkHttpClient okHttpClient;
+    private final Executor executor;
+    private final Transport transport;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Map<EndpointFamily, CircuitBreaker> circuitBreakers;
+    private final Map<EndpointFamily, RateLimiter> rateLimiters;
+    private final Map<EndpointFamily, Hedger> hedgers;
+    private final SingleFlight singleFlight;
+    private final RefreshingCache<Verifier> verifiers;
+    private final NonceCache nonces;
+    private final AtomicBoolean ready;
     private final ResponseHandler responseHandler;
 
     private final Signer signer;
@@ -75,19 +120,17 @@ public class Target365Client implements Client {
     private final Map<Integer, ResponseParser> responseParsers;
 
     @Override
-    public Future<String> getPing() {
-        return doGet("api/ping", Status.OK)
-                .thenApplyAsync(response -> Util.wrap(response::body))
-                .thenApplyAsync(body -> Util.wrap(body::string));
+    public CompletableFuture<String> getPing() {
+        return doGet("api/ping", Status.OK, response -> Util.wrap(() -> response.body().string()));
     }
 
     @Override
-    public Future<List<Keyword>> getKeywords() {
+    public CompletableFuture<List<Keyword>> getKeywords() {
         return getKeywords(null, null, null, null);
     }
 
     @Override
-    public Future<List<Keyword>> getKeywords(
+    public CompletableFuture<List<Keyword>> getKeywords(
             final String shortNumberId, final String keywordText, final Keyword.Mode mode, final String tag
     ) {
         final List<Param> params = ImmutableList.of(
@@ -95,237 +138,230 @@ public class Target365Client implements Client {
                 new Param("mode", Optional.ofNullable(mode).map(Keyword.Mode::toString).orElse(null)), new Param("tag", tag)
         );
 
-        return doGet("api/keywords", params, Status.OK)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, Type.LIST_OF_KEYWORDS));
+        return doGet("api/keywords", params, Status.OK,
+                response -> objectMappingService.toObject(parse(response), Type.LIST_OF_KEYWORDS));
     }
 
     @Override
-    public Future<String> postKeyword(final Keyword keyword) {
+    public CompletableFuture<String> postKeyword(final Keyword keyword) {
         validationService.validate(NotNullValidator.of("keyword", keyword), ValidValidator.of("keyword", keyword));
 
-        return doPost("api/keywords", objectMappingService.toString(keyword), Status.CREATED)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response));
+        return doPost("api/keywords", objectMappingService.toBytes(keyword), Status.CREATED, this::parse);
     }
 
     @Override
-    public Future<Keyword> getKeyword(final String keywordId) {
+    public CompletableFuture<Keyword> getKeyword(final String keywordId) {
         validationService.validate(NotBlankValidator.of("keywordId", keywordId));
 
-        return doGet("api/keywords/" + Util.safeEncode(keywordId), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, Keyword.class));
+        return doGet("api/keywords/" + Util.safeEncode(keywordId), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), Keyword.class));
     }
 
     @Override
-    public Future<Void> putKeyword(final Keyword keyword) {
+    public CompletableFuture<Void> putKeyword(final Keyword keyword) {
         validationService.validate(NotNullValidator.of("keyword", keyword), NotNullValidator.of("keyword.keywordId", keyword.getKeywordId()),
                 ValidValidator.of("keyword", keyword));
 
-        return doPut("api/keywords/" + Util.safeEncode(keyword.getKeywordId()), objectMappingService.toString(keyword), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doPut("api/keywords/" + Util.safeEncode(keyword.getKeywordId()), objectMappingService.toBytes(keyword), Status.NO_CONTENT,
+                this::discard);
     }
 
     @Override
-    public Future<Void> deleteKeyword(final String keywordId) {
+    public CompletableFuture<Void> deleteKeyword(final String keywordId) {
         validationService.validate(NotBlankValidator.of("keywordId", keywordId));
 
-        return doDelete("api/keywords/" + Util.safeEncode(keywordId), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doDelete("api/keywords/" + Util.safeEncode(keywordId), Status.NO_CONTENT, this::discard);
     }
 
     @Override
-    public Future<LookupResult> addressLookup(final String msisdn) {
+    public CompletableFuture<LookupResult> addressLookup(final String msisdn) {
         validationService.validate(NotBlankValidator.of("msisdn", msisdn));
 
-        return doGet("api/lookup", ImmutableList.of(new Param("msisdn", msisdn)), Status.OK)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, LookupResult.class));
+        return doGet("api/lookup", ImmutableList.of(new Param("msisdn", msisdn)), Status.OK,
+                response -> objectMappingService.toObject(parse(response), LookupResult.class));
     }
 
     @Override
-    public Future<LookupResult[]> freetextLookup(final String freetext) {
+    public CompletableFuture<LookupResult[]> freetextLookup(final String freetext) {
         validationService.validate(NotBlankValidator.of("freetext", freetext));
 
-        return doGet("api/lookup/freetext", ImmutableList.of(new Param("input", freetext)), Status.OK)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, LookupResult[].class));
+        return doGet("api/lookup/freetext", ImmutableList.of(new Param("input", freetext)), Status.OK,
+                response -> objectMappingService.toObject(parse(response), LookupResult[].class));
     }
 
     @Override
-    public Future<Void> prepareMsisdns(final List<String> msisdns) {
+    public CompletableFuture<Void> prepareMsisdns(final List<String> msisdns) {
         validationService.validate(NotEmptyValidator.of("msisdns", msisdns), NoBlanksValidator.of("msisdns", msisdns));
 
-        return doPost("api/prepare-msisdns", objectMappingService.toString(msisdns), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doPost("api/prepare-msisdns", objectMappingService.toBytes(msisdns), Status.NO_CONTENT, this::discard);
     }
 
     @Override
-    public Future<List<String>> postOutMessageBatch(final OutMessageBatch outMessageBatch) {
+    public CompletableFuture<List<String>> postOutMessageBatch(final OutMessageBatch outMessageBatch) {
         validationService.validate(NotNullValidator.of("outMessageBatch", outMessageBatch), ValidValidator.of("outMessageBatch", outMessageBatch));
 
-        return doPost("api/out-messages/batch", objectMappingService.toString(outMessageBatch.getItems()), Status.CREATED)
-                /*
-                 * Normally batch creation of out-messages returns nothing, so we manually create locations
-                 * for all created out-messages using transaction ids provided in the request
-                 */
-                .thenApplyAsync(location -> outMessageBatch.getItems().stream().map(OutMessage::getTransactionId).collect(Collectors.toList()));
+        // Batch could be safely repeated only if the server can recognize every out-message by its transaction id
+        final boolean idempotent = outMessageBatch.getItems().stream().allMatch(Target365Client::hasTransactionId);
+
+        // Batch takes a permit per out-message, from the budget of the sender if all out-messages have the same one
+        final List<String> senders = outMessageBatch.getItems().stream().map(OutMessage::getSender).distinct().collect(Collectors.toList());
+        final String sender = senders.size() == 1 ? senders.get(0) : null;
+
+        /*
+         * Normally batch creation of out-messages returns nothing, so we manually create locations
+         * for all created out-messages using transaction ids provided in the request
+         */
+        return doPost("api/out-messages/batch", objectMappingService.toBytes(outMessageBatch.getItems()), idempotent,
+                sender, outMessageBatch.getItems().size(), Status.CREATED,
+                response -> {
+                    response.close();
+                    return outMessageBatch.getItems().stream().map(OutMessage::getTransactionId).collect(Collectors.toList());
+                });
     }
 
     @Override
-    public Future<String> postOutMessage(final OutMessage outMessage) {
+    public CompletableFuture<String> postOutMessage(final OutMessage outMessage) {
         validationService.validate(NotNullValidator.of("outMessage", outMessage), ValidValidator.of("outMessage", outMessage));
 
-        return doPost("api/out-messages", objectMappingService.toString(outMessage), Status.CREATED)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response));
+        return doPost("api/out-messages", objectMappingService.toBytes(outMessage), hasTransactionId(outMessage),
+                outMessage.getSender(), 1, Status.CREATED, this::parse);
     }
 
     @Override
-    public Future<OutMessage> getOutMessage(final String transactionId) {
+    public CompletableFuture<OutMessage> getOutMessage(final String transactionId) {
         validationService.validate(NotBlankValidator.of("transactionId", transactionId));
 
-        return doGet("api/out-messages/" + Util.safeEncode(transactionId), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, OutMessage.class));
+        return doGet("api/out-messages/" + Util.safeEncode(transactionId), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), OutMessage.class));
     }
 
     @Override
-    public Future<Void> putOutMessage(final OutMessage outMessage) {
+    public CompletableFuture<Void> putOutMessage(final OutMessage outMessage) {
         validationService.validate(NotNullValidator.of("outMessage", outMessage), ValidValidator.of("outMessage", outMessage),
                 NotBlankValidator.of("outMessage.transactionId", outMessage != null ? outMessage.getTransactionId() : null));
 
-        return doPut("api/out-messages/" + Util.safeEncode(outMessage.getTransactionId()), objectMappingService.toString(outMessage), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doPut("api/out-messages/" + Util.safeEncode(outMessage.getTransactionId()), objectMappingService.toBytes(outMessage), Status.NO_CONTENT,
+                this::discard);
     }
 
     @Override
-    public Future<Void> deleteOutMessage(final String transactionId) {
+    public CompletableFuture<Void> deleteOutMessage(final String transactionId) {
         validationService.validate(NotBlankValidator.of("transactionId", transactionId));
 
-        return doDelete("api/out-messages/" + Util.safeEncode(transactionId), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doDelete("api/out-messages/" + Util.safeEncode(transactionId), Status.NO_CONTENT, this::discard);
     }
 
     @Override
-    public Future<String> getOutMessageExport(final ZonedDateTime from, final ZonedDateTime to) {
+    public CompletableFuture<String> getOutMessageExport(final ZonedDateTime from, final ZonedDateTime to) {
         validationService.validate(NotNullValidator.of("from", from), NotNullValidator.of("to", to));
 
         String path = "api/export/out-messages"
                 + "?from=" + Util.safeEncode(from.format(DateTimeFormatter.ISO_INSTANT))
                 + "&to=" + Util.safeEncode(to.format(DateTimeFormatter.ISO_INSTANT));
 
-        return doGet(path, ImmutableList.of(Status.OK))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response));
+        return doGet(path, ImmutableList.of(Status.OK), this::parse);
     }
 
     @Override
-    public Future<InMessage> getInMessage(final String shortNumberId, final String transactionId) {
+    public CompletableFuture<InMessage> getInMessage(final String shortNumberId, final String transactionId) {
         validationService.validate(NotBlankValidator.of("shortNumberId", shortNumberId), NotBlankValidator.of("transactionId", transactionId));
 
         final String url = "api/in-messages/" + Util.safeEncode(shortNumberId) + "/" + Util.safeEncode(transactionId);
-        return doGet(url, ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, InMessage.class));
+        return doGet(url, ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), InMessage.class));
     }
 
     @Override
-    public Future<List<StrexMerchantId>> getMerchantIds() {
-        return doGet("api/strex/merchants", Status.OK)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, Type.LIST_OF_MERCHANTS));
+    public CompletableFuture<List<StrexMerchantId>> getMerchantIds() {
+        return doGet("api/strex/merchants", Status.OK,
+                response -> objectMappingService.toObject(parse(response), Type.LIST_OF_MERCHANTS));
     }
 
     @Override
-    public Future<StrexMerchantId> getMerchantId(final String merchantId) {
+    public CompletableFuture<StrexMerchantId> getMerchantId(final String merchantId) {
         validationService.validate(NotBlankValidator.of("merchantId", merchantId));
 
-        return doGet("api/strex/merchants/" + Util.safeEncode(merchantId), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, StrexMerchantId.class));
+        return doGet("api/strex/merchants/" + Util.safeEncode(merchantId), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), StrexMerchantId.class));
     }
 
     @Override
-    public Future<Void> postStrexOneTimePassword(final StrexOneTimePassword oneTimePassword) {
+    public CompletableFuture<Void> postStrexOneTimePassword(final StrexOneTimePassword oneTimePassword) {
         validationService.validate(NotNullValidator.of("oneTimePassword", oneTimePassword),
                 ValidValidator.of("oneTimePassword", oneTimePassword));
 
-        return doPost("api/strex/one-time-passwords", objectMappingService.toString(oneTimePassword), Status.CREATED)
-                .thenApplyAsync(response -> VOID);
+        return doPost("api/strex/one-time-passwords", objectMappingService.toBytes(oneTimePassword), true,
+                oneTimePassword.getSender(), 1, Status.CREATED, this::discard);
     }
 
     @Override
-    public Future<StrexOneTimePassword> getStrexOneTimePassword(final String transactionId) {
+    public CompletableFuture<StrexOneTimePassword> getStrexOneTimePassword(final String transactionId) {
         validationService.validate(NotBlankValidator.of("transactionId", transactionId));
 
-        return doGet("api/strex/one-time-passwords/" + Util.safeEncode(transactionId), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, StrexOneTimePassword.class));
+        return doGet("api/strex/one-time-passwords/" + Util.safeEncode(transactionId), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), StrexOneTimePassword.class));
     }
 
     @Override
-    public Future<Void> postStrexTransaction(final StrexTransaction transaction) {
+    public CompletableFuture<Void> postStrexTransaction(final StrexTransaction transaction) {
         validationService.validate(NotNullValidator.of("transaction", transaction),
                 ValidValidator.of("transaction", transaction));
 
-        return doPost("api/strex/transactions", objectMappingService.toString(transaction), Status.CREATED)
-                .thenApplyAsync(response -> VOID);
+        return doPost("api/strex/transactions", objectMappingService.toBytes(transaction), true,
+                transaction.getShortNumber(), 1, Status.CREATED, this::discard);
     }
 
     @Override
-    public Future<StrexTransaction> getStrexTransaction(final String transactionId) {
+    public CompletableFuture<StrexTransaction> getStrexTransaction(final String transactionId) {
         validationService.validate(NotBlankValidator.of("transactionId", transactionId));
 
-        return doGet("api/strex/transactions/" + Util.safeEncode(transactionId), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, StrexTransaction.class));
+        return doGet("api/strex/transactions/" + Util.safeEncode(transactionId), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), StrexTransaction.class));
     }
 
     @Override
-    public Future<Void> saveOneClickConfig(final OneClickConfig config) {
+    public CompletableFuture<Void> saveOneClickConfig(final OneClickConfig config) {
         validationService.validate(NotNullValidator.of("config", config),
                 ValidValidator.of("config", config));
 
-        return doPut("api/one-click/configs/" + Util.safeEncode(config.getConfigId()), objectMappingService.toString(config), Status.CREATED)
-                .thenApplyAsync(response -> VOID);
+        return doPut("api/one-click/configs/" + Util.safeEncode(config.getConfigId()), objectMappingService.toBytes(config), Status.CREATED,
+                this::discard);
     }
 
     @Override
-    public Future<OneClickConfig> getOneClickConfig(final String configId) {
+    public CompletableFuture<OneClickConfig> getOneClickConfig(final String configId) {
         validationService.validate(NotBlankValidator.of("configId", configId));
 
-        return doGet("api/one-click/configs/" + Util.safeEncode(configId), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, OneClickConfig.class));
+        return doGet("api/one-click/configs/" + Util.safeEncode(configId), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), OneClickConfig.class));
     }
 
     @Override
-    public Future<Void> sendStrexRegistrationSms(final StrexRegistrationSms registrationSms) {
+    public CompletableFuture<Void> sendStrexRegistrationSms(final StrexRegistrationSms registrationSms) {
         validationService.validate(NotNullValidator.of("registrationSms", registrationSms));
 
-        return doPost("api/strex/registrationsms", objectMappingService.toString(registrationSms), Status.CREATED)
-                .thenApplyAsync(response -> VOID);
+        return doPost("api/strex/registrationsms", objectMappingService.toBytes(registrationSms), Status.CREATED, this::discard);
     }
 
     @Override
-    public Future<String> reverseStrexTransaction(final String transactionId) {
+    public CompletableFuture<String> reverseStrexTransaction(final String transactionId) {
         validationService.validate(NotBlankValidator.of("transactionId", transactionId));
 
-        return doDelete("api/strex/transactions/" + Util.safeEncode(transactionId), Status.CREATED)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response));
+        // Reversal creates a new transaction, so it is never repeated
+        return doDelete("api/strex/transactions/" + Util.safeEncode(transactionId), false, Status.CREATED, this::parse);
     }
 
     @Override
-    public Future<UserValidity> getStrexUserValidity(final String recipient, final String merchantId) {
+    public CompletableFuture<UserValidity> getStrexUserValidity(final String recipient, final String merchantId) {
         validationService.validate(NotBlankValidator.of("recipient", recipient));
 
         return doGet("api/strex/validity?recipient=" + Util.safeEncode(recipient) + ((merchantId != null && !merchantId.isEmpty()) ? "&merchantId=" + Util.safeEncode(merchantId) : ""),
-            ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, UserValidity.class));
+            ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), UserValidity.class));
     }
 
     @Override
-    public Future<Boolean> verifySignature(
+    public CompletableFuture<Boolean> verifySignature(
             final String method, final String uri, final String content, final String xEcdsaSignatureString
     ) {
         validationService.validate(NotBlankValidator.of("method", method), NotBlankValidator.of("uri", uri),
@@ -341,85 +377,136 @@ public class Target365Client implements Client {
         validationService.validate(NotBlankValidator.of("keyName", keyName), TimestampValidator.of("timestamp", timestamp, 5 * 60),
                 NotBlankValidator.of("nonce", nonce), NotBlankValidator.of("sign", sign));
 
-        return doGet("api/public-key/" + Util.safeEncode(keyName), Status.OK)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(json -> Util.wrap(() -> new ObjectMapper().readTree(json).get("publicKeyString").asText()))
-                .thenApplyAsync(ecPrivateKeyAsString -> authorizationService.verifyHeader(EcdsaVerifier.getInstance(ecPrivateKeyAsString),
-                        method, uri, timestamp, nonce, content, sign));
+        final Supplier<CompletableFuture<Verifier>> loader = () -> doGet("api/public-key/" + Util.safeEncode(keyName), Status.OK,
+                response -> objectMappingService.toObject(parse(response), PublicKey.class))
+                .thenApply(publicKey -> EcdsaVerifier.getInstance(publicKey.getPublicKeyString()));
+
+        // Cached verifiers are refreshed in the background, so that verification usually does not wait for the network
+        return Optional.ofNullable(verifiers).map(cache -> cache.get(keyName, loader)).orElseGet(loader)
+                .thenApply(verifier -> authorizationService.verifyHeader(verifier, method, uri, timestamp, nonce, content, sign)
+                        // Only nonces of valid signatures are remembered, so that forged requests cannot fill the cache
+                        && (nonces == null || nonces.add(keyName, nonce, timestamp)));
     }
 
     @Override
-    public Future<PublicKey> getServerPublicKey(final String keyName) {
+    public CompletableFuture<PublicKey> getServerPublicKey(final String keyName) {
         validationService.validate(NotBlankValidator.of("keyName", keyName));
 
-        return doGet("api/server/public-keys/" + Util.safeEncode(keyName), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, PublicKey.class));
+        return doGet("api/server/public-keys/" + Util.safeEncode(keyName), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), PublicKey.class));
     }
 
     @Override
-    public Future<List<PublicKey>> getClientPublicKeys() {
-        return doGet("api/client/public-keys", Status.OK)
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, Type.LIST_OF_PUBLIC_KEYS));
+    public CompletableFuture<List<PublicKey>> getClientPublicKeys() {
+        return doGet("api/client/public-keys", Status.OK,
+                response -> objectMappingService.toObject(parse(response), Type.LIST_OF_PUBLIC_KEYS));
     }
 
     @Override
-    public Future<PublicKey> getClientPublicKey(final String keyName) {
+    public CompletableFuture<PublicKey> getClientPublicKey(final String keyName) {
         validationService.validate(NotBlankValidator.of("keyName", keyName));
 
-        return doGet("api/client/public-keys/" + Util.safeEncode(keyName), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, PublicKey.class));
+        return doGet("api/client/public-keys/" + Util.safeEncode(keyName), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), PublicKey.class));
     }
 
     @Override
-    public Future<Void> deleteClientPublicKey(final String keyName) {
+    public CompletableFuture<Void> deleteClientPublicKey(final String keyName) {
         validationService.validate(NotBlankValidator.of("keyName", keyName));
 
-        return doDelete("api/client/public-keys/" + Util.safeEncode(keyName), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doDelete("api/client/public-keys/" + Util.safeEncode(keyName), Status.NO_CONTENT, this::discard);
     }
 
     @Override
-    public Future<Void> postPincode(final Pincode pincode) {
+    public CompletableFuture<Void> postPincode(final Pincode pincode) {
         validationService.validate(NotNullValidator.of("pincode", pincode),
                 ValidValidator.of("pincode", pincode));
 
-        return doPost("api/pincodes", objectMappingService.toString(pincode), Status.NO_CONTENT)
-                .thenApplyAsync(response -> VOID);
+        return doPost("api/pincodes", objectMappingService.toBytes(pincode), Status.NO_CONTENT, this::discard);
     }
 
     @Override
-    public Future<Boolean> getPincodeVerification(final String transactionId, final String pincode) {
+    public CompletableFuture<Boolean> getPincodeVerification(final String transactionId, final String pincode) {
         validationService.validate(NotBlankValidator.of("transactionId", transactionId));
         validationService.validate(NotBlankValidator.of("pincode", pincode));
 
-        return doGet("api/pincodes/verification?transactionId=" + Util.safeEncode(transactionId) + "&pincode=" + Util.safeEncode(pincode), ImmutableList.of(Status.OK, Status.NOT_FOUND))
-                .thenApplyAsync(response -> responseParsers.get(response.code()).parse(response))
-                .thenApplyAsync(string -> objectMappingService.toObject(string, Boolean.TYPE));
+        return doGet("api/pincodes/verification?transactionId=" + Util.safeEncode(transactionId) + "&pincode=" + Util.safeEncode(pincode), ImmutableList.of(Status.OK, Status.NOT_FOUND),
+                response -> objectMappingService.toObject(parse(response), Boolean.TYPE));
+    }
+
+    /**
+     * Parses the handled response with the parser registered for its status code
+     *
+     * @param response Handled response
+     * @return parsing result
+     */
+    private String parse(final Response response) {
+        return responseParsers.get(response.code()).parse(response);
+    }
+
+    /**
+     * Checks whether the out-message has a transaction id, which the server uses to guard against resending it
+     *
+     * @param outMessage Out-message
+     * @return true if posting the out-message could be safely repeated, otherwise false
+     */
+    private static boolean hasTransactionId(final OutMessage outMessage) {
+        return outMessage.getTransactionId() != null && !outMessage.getTransactionId().isEmpty();
+    }
+
+    /**
+     * Checks whether a call failed because the resource does not exist
+     *
+     * @param throwable Error of the call
+     * @return true if the server responded with 404, otherwise false
+     */
+    private static boolean isNotFound(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof InvalidResponseException) {
+                return ((InvalidResponseException) t).getCode() == Status.NOT_FOUND;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Discards the handled response, which is used to simulate {@link Void} response
+     *
+     * @param response Handled response
+     * @return {@link #VOID}
+     */
+    private Void discard(final Response response) {
+        response.close();
+        return VOID;
     }
 
     /**
      * Performs standard GET call to the server
      *
-     * @param path Path to be called (should <b>not</b> include base URL)
-     * @param code Expected response status code
-     * @return Future which contains response
+     * @param path   Path to be called (should <b>not</b> include base URL)
+     * @param code   Expected response status code
+     * @param mapper Mapper of the handled response
+     * @param <T>    Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doGet(final String path, final Integer code) {
-        return doGet(path, ImmutableList.of(), ImmutableList.of(code));
+    private <T> CompletableFuture<T> doGet(final String path, final Integer code, final Function<Response, T> mapper) {
+        return doGet(path, ImmutableList.of(), ImmutableList.of(code), mapper);
     }
 
     /**
      * Performs standard GET call to the server
      *
-     * @param path  Path to be called (should <b>not</b> include base URL)
-     * @param codes Expected response status codes
-     * @return Future which contains response
+     * @param path   Path to be called (should <b>not</b> include base URL)
+     * @param codes  Expected response status codes
+     * @param mapper Mapper of the handled response
+     * @param <T>    Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doGet(final String path, final List<Integer> codes) {
-        return doGet(path, ImmutableList.of(), codes);
+    private <T> CompletableFuture<T> doGet(
+            final String path, final List<Integer> codes, final Function<Response, T> mapper
+    ) {
+        return doGet(path, ImmutableList.of(), codes, mapper);
     }
 
     /**
@@ -428,10 +515,14 @@ public class Target365Client implements Client {
      * @param path   Path to be called (should <b>not</b> include base URL)
      * @param params Query params to be sent
      * @param code   Expected response status code
-     * @return Future which contains response
+     * @param mapper Mapper of the handled response
+     * @param <T>    Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doGet(final String path, final List<Param> params, final Integer code) {
-        return doGet(path, params, ImmutableList.of(code));
+    private <T> CompletableFuture<T> doGet(
+            final String path, final List<Param> params, final Integer code, final Function<Response, T> mapper
+    ) {
+        return doGet(path, params, ImmutableList.of(code), mapper);
     }
 
     /**
@@ -441,134 +532,301 @@ public class Target365Client implements Client {
      * @param path   Path to be called (should <b>not</b> include base URL)
      * @param params Query params to be sent
      * @param codes  Expected response status codes
-     * @return {@link CompletableFuture} which contains response
+     * @param mapper Mapper of the handled response
+     * @param <T>    Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doGet(final String path, final List<Param> params, final List<Integer> codes) {
+    private <T> CompletableFuture<T> doGet(
+            final String path, final List<Param> params, final List<Integer> codes, final Function<Response, T> mapper
+    ) {
         final String uri = parameters.getBaseUrl() + path + params.stream()
                 .filter(p -> !Objects.isNull(p.getValue()))
                 .map(Param::toQueryParam).reduce((s1, s2) -> s1 + "&" + s2)
                 .map(p -> "?" + p).orElse("");
 
-        final String authorization = authorizationService.signHeader(signer, parameters.getKeyName(), Method.GET, uri, "");
-
-        final Request request = new Request.Builder().url(uri).get()
-                .header(Header.AUTHORIZATION, authorization)
-                .header("X-Sdk", sdkName)
-                .header("X-Sdk-Version", sdkVersion)
-                .build();
-
-        final Call call = okHttpClient.newCall(request);
-
-        return CompletableFuture.supplyAsync(() -> Util.wrap(call::execute))
-                .thenApplyAsync(response -> Util.wrap(() -> responseHandler.handle(response, codes)));
+        return execute(Method.GET, EndpointFamily.of(path), uri, NO_CONTENT, true, null, 1, codes, mapper);
     }
 
     /**
      * Performs standard POST call to the server
      *
      * @param path    Path to be called (should <b>not</b> include base URL)
-     * @param content Body to be sent with the request as a json string
+     * @param content Body to be sent with the request as UTF-8 encoded json
      * @param code    Expected response status code
-     * @return {@link CompletableFuture} which contains response
+     * @param mapper  Mapper of the handled response
+     * @param <T>     Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doPost(final String path, final String content, final Integer code) {
-        return doPost(path, content, ImmutableList.of(code));
+    private <T> CompletableFuture<T> doPost(
+            final String path, final byte[] content, final Integer code, final Function<Response, T> mapper
+    ) {
+        return doPost(path, content, false, code, mapper);
     }
 
     /**
      * Performs standard POST call to the server
      *
-     * @param path    Path to be called (should <b>not</b> include base URL)
-     * @param content Body to be sent with the request as a json string
-     * @param codes   Expected response status codes
-     * @return {@link CompletableFuture} which contains response
+     * @param path       Path to be called (should <b>not</b> include base URL)
+     * @param content    Body to be sent with the request as UTF-8 encoded json
+     * @param idempotent Whether the call could be safely repeated, e.g. thanks to a client-supplied transaction id
+     * @param code       Expected response status code
+     * @param mapper     Mapper of the handled response
+     * @param <T>        Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doPost(final String path, final String content, final List<Integer> codes) {
-        final String uri = parameters.getBaseUrl() + path;
-        final String authorization = authorizationService.signHeader(signer, parameters.getKeyName(), Method.POST, uri, content);
-
-        final Request request = new Request.Builder()
-                .url(uri).post(RequestBody.create(MediaType.APPLICATION_JSON, content))
-                .header(Header.AUTHORIZATION, authorization)
-                .header("X-Sdk", sdkName)
-                .header("X-Sdk-Version", sdkVersion)
-                .build();
-
-        final Call call = okHttpClient.newCall(request);
+    private <T> CompletableFuture<T> doPost(
+            final String path, final byte[] content, final boolean idempotent, final Integer code, final Function<Response, T> mapper
+    ) {
+        return doPost(path, content, idempotent, null, 1, code, mapper);
+    }
 
-        return CompletableFuture.supplyAsync(() -> Util.wrap(call::execute))
-                .thenApplyAsync(response -> Util.wrap(() -> responseHandler.handle(response, codes)));
+    /**
+     * Performs standard POST call to the server
+     *
+     * @param path       Path to be called (should <b>not</b> include base URL)
+     * @param content    Body to be sent with the request as UTF-8 encoded json
+     * @param idempotent Whether the call could be safely repeated, e.g. thanks to a client-supplied transaction id
+     * @param sender     Sender whose rate limit applies, <code>null</code> if there is no sender
+     * @param permits    Number of rate limit permits the call takes, e.g. number of messages
+     * @param code       Expected response status code
+     * @param mapper     Mapper of the handled response
+     * @param <T>        Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
+     */
+    private <T> CompletableFuture<T> doPost(
+            final String path, final byte[] content, final boolean idempotent, final String sender, final int permits,
+            final Integer code, final Function<Response, T> mapper
+    ) {
+        return execute(Method.POST, EndpointFamily.of(path), parameters.getBaseUrl() + path, content, idempotent, sender, permits,
+                ImmutableList.of(code), mapper);
     }
 
     /**
      * Performs standard PUT call to the server
      *
      * @param path    Path to be called (should <b>not</b> include base URL)
-     * @param content Body to be sent with the request as a json string
+     * @param content Body to be sent with the request as UTF-8 encoded json
      * @param code    Expected response status code
-     * @return {@link CompletableFuture} which contains response
+     * @param mapper  Mapper of the handled response
+     * @param <T>     Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doPut(final String path, final String content, final Integer code) {
-        return doPut(path, content, ImmutableList.of(code));
+    private <T> CompletableFuture<T> doPut(
+            final String path, final byte[] content, final Integer code, final Function<Response, T> mapper
+    ) {
+        return doPut(path, content, ImmutableList.of(code), mapper);
     }
 
     /**
      * Performs standard PUT call to the server
      *
      * @param path    Path to be called (should <b>not</b> include base URL)
-     * @param content Body to be sent with the request as a json string
+     * @param content Body to be sent with the request as UTF-8 encoded json
      * @param codes   Expected response status codes
-     * @return {@link CompletableFuture} which contains response
+     * @param mapper  Mapper of the handled response
+     * @param <T>     Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
      */
-    private CompletableFuture<Response> doPut(final String path, final String content, final List<Integer> codes) {
-        final String uri = parameters.getBaseUrl() + path;
-        final String authorization = authorizationService.signHeader(signer, parameters.getKeyName(), Method.PUT, uri, content);
+    private <T> CompletableFuture<T> doPut(
+            final String path, final byte[] content, final List<Integer> codes, final Function<Response, T> mapper
+    ) {
+        return execute(Method.PUT, EndpointFamily.of(path), parameters.getBaseUrl() + path, content, true, null, 1, codes, mapper);
+    }
 
-        final Request request = new Request.Builder()
-                .url(uri).put(RequestBody.create(MediaType.APPLICATION_JSON, content))
-                .header(Header.AUTHORIZATION, authorization)
-                .header("X-Sdk", sdkName)
-                .header("X-Sdk-Version", sdkVersion)
-                .build();
+    /**
+     * Performs standard DELETE call to the server
+     *
+     * @param path   Path to be called (should <b>not</b> include base URL)
+     * @param code   Expected response status code
+     * @param mapper Mapper of the handled response
+     * @param <T>    Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
+     */
+    private <T> CompletableFuture<T> doDelete(final String path, final Integer code, final Function<Response, T> mapper) {
+        return doDelete(path, true, code, mapper);
+    }
+
+    /**
+     * Performs standard DELETE call to the server
+     *
+     * @param path       Path to be called (should <b>not</b> include base URL)
+     * @param idempotent Whether the call could be safely repeated
+     * @param code       Expected response status code
+     * @param mapper     Mapper of the handled response
+     * @param <T>        Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
+     */
+    private <T> CompletableFuture<T> doDelete(
+            final String path, final boolean idempotent, final Integer code, final Function<Response, T> mapper
+    ) {
+        return execute(Method.DELETE, EndpointFamily.of(path), parameters.getBaseUrl() + path, NO_CONTENT, idempotent, null, 1,
+                ImmutableList.of(code), mapper);
+    }
 
-        final Call call = okHttpClient.newCall(request);
+    /**
+     * Executes a call to the server once the rate limit of the endpoint family, the in-flight limit of the client and
+     * the circuit breaker of the endpoint family allow it, hedging it according to {@link Parameters#getHedgePolicy()} if it is a GET and
+     * retrying it according to {@link Parameters#getRetryPolicy()} if it is idempotent. Concurrent identical GET calls
+     * share one call if {@link Parameters#isCoalescing()} is set.
+     * Every attempt is signed right before it is sent, so waiting for a permit, a free slot or a retry does not age
+     * the signature
+     *
+     * @param method     HTTP method
+     * @param family     Family of the endpoint
+     * @param uri        Full URI to be called
+     * @param content    Body to be sent with the request as UTF-8 encoded json, empty if there is no body
+     * @param idempotent Whether the call could be safely repeated
+     * @param sender     Sender whose rate limit applies, <code>null</code> if there is no sender
+     * @param permits    Number of rate limit permits the call takes
+     * @param codes      Expected response status codes
+     * @param mapper     Mapper of the handled response
+     * @param <T>        Type of the mapper result
+     * @return {@link CompletableFuture} which contains mapper result
+     */
+    private <T> CompletableFuture<T> execute(
+            final String method, final EndpointFamily family, final String uri, final byte[] content, final boolean idempotent,
+            final String sender, final int permits, final List<Integer> codes, final Function<Response, T> mapper
+    ) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(parameters.getCallTimeout());
+
+        final Supplier<CompletableFuture<T>> dispatched = () -> {
+            final Call call = newCall(method, uri, content, deadline);
+            return transport.execute(call, response -> mapper.apply(Util.wrap(() -> responseHandler.handle(response, codes))));
+        };
 
-        return CompletableFuture.supplyAsync(() -> Util.wrap(call::execute))
-                .thenApplyAsync(response -> Util.wrap(() -> responseHandler.handle(response, codes)));
+        final Supplier<CompletableFuture<T>> broken = () -> Optional.ofNullable(circuitBreakers.get(family))
+                .map(circuitBreaker -> circuitBreaker.execute(dispatched))
+                .orElseGet(dispatched);
+
+        // Breaker is inside the limiter, so that waiting for a free slot is never taken for a slow call of the server
+        final Supplier<CompletableFuture<T>> attempt = () -> concurrencyLimiter.execute(family.name(), broken);
+
+        // Only reads are hedged, every hedge is a new call with its own signature
+        final Hedger hedger = Method.GET.equals(method) ? hedgers.get(family) : null;
+        final Supplier<CompletableFuture<T>> hedged = () -> Optional.ofNullable(hedger)
+                .map(h -> h.execute(attempt))
+                .orElseGet(attempt);
+
+        final Supplier<CompletableFuture<T>> retried = () -> Optional.ofNullable(parameters.getRetryPolicy())
+                .map(retryPolicy -> retryPolicy.execute(hedged, idempotent, executor))
+                .orElseGet(hedged);
+
+        // Retries are limited by the retry budget, so only the call itself takes rate limit permits
+        final Supplier<CompletableFuture<T>> rateLimited = () -> Optional.ofNullable(rateLimiters.get(family))
+                .map(rateLimiter -> rateLimiter.execute(sender, permits, retried))
+                .orElseGet(retried);
+
+        // Concurrent identical reads share one call, views with another call timeout do not share calls with this client
+        return parameters.isCoalescing() && Method.GET.equals(method)
+                ? singleFlight.execute(parameters.getCallTimeout() + " " + uri, rateLimited) : rateLimited.get();
     }
 
     /**
-     * Performs standard DELETE call to the server
+     * Creates a new call, which has to complete before the deadline if {@link Parameters#getCallTimeout()} is set
      *
-     * @param path Path to be called (should <b>not</b> include base URL)
-     * @param code Expected response status code
-     * @return {@link CompletableFuture} which contains response
+     * @param method   HTTP method
+     * @param uri      Full URI to be called
+     * @param content  Body to be sent with the request as UTF-8 encoded json, empty if there is no body
+     * @param deadline Deadline of the call in {@link System#nanoTime()} terms
+     * @return Call
      */
-    private CompletableFuture<Response> doDelete(final String path, final Integer code) {
-        return doDelete(path, ImmutableList.of(code));
+    private Call newCall(final String method, final String uri, final byte[] content, final long deadline) {
+        if (parameters.getCallTimeout() <= 0) {
+            return okHttpClient.newCall(newRequest(method, uri, content));
+        }
+
+        // Time spent waiting for a free slot counts against the deadline
+        final long remaining = deadline - System.nanoTime();
+
+        if (remaining <= 0) {
+            throw new RuntimeException(new InterruptedIOException("timeout"));
+        }
+
+        final Call call = okHttpClient.newCall(newRequest(method, uri, content));
+        call.timeout().timeout(remaining, TimeUnit.NANOSECONDS);
+
+        return call;
     }
 
     /**
-     * Performs standard DELETE call to the server
+     * Creates a new signed request
      *
-     * @param path  Path to be called (should <b>not</b> include base URL)
-     * @param codes Expected response status codes
-     * @return {@link CompletableFuture} which contains response
+     * @param method  HTTP method
+     * @param uri     Full URI to be called
+     * @param content Body to be sent with the request as UTF-8 encoded json, empty if there is no body
+     * @return Request
      */
-    private CompletableFuture<Response> doDelete(final String path, final List<Integer> codes) {
-        final String uri = parameters.getBaseUrl() + path;
-        final String authorization = authorizationService.signHeader(signer, parameters.getKeyName(), Method.DELETE, uri, "");
+    private Request newRequest(final String method, final String uri, final byte[] content) {
+        final String authorization = authorizationService.signHeaderBytes(signer, parameters.getKeyName(), method, uri, content);
+        final RequestBody body = Method.POST.equals(method) || Method.PUT.equals(method)
+                ? RequestBody.create(MediaType.APPLICATION_JSON, content) : null;
 
-        final Request request = new Request.Builder().url(uri).delete()
+        return new Request.Builder()
+                .url(uri).method(method, body)
                 .header(Header.AUTHORIZATION, authorization)
                 .header("X-Sdk", sdkName)
                 .header("X-Sdk-Version", sdkVersion)
                 .build();
+    }
+
+    /**
+     * Gets a view of the client, which shares transport, limits, circuit breakers and signer with this client, but completes
+     * every call within the given time, e.g. a short deadline for {@link #addressLookup(String)}
+     * or a long one for {@link #getOutMessageExport(ZonedDateTime, ZonedDateTime)}
+     *
+     * @param callTimeout Call timeout, <code>0</code> for no timeout
+     * @param unit        Unit of the call timeout
+     * @return A client
+     */
+    public Target365Client withCallTimeout(final long callTimeout, final TimeUnit unit) {
+        return withParameters(parameters.toBuilder().callTimeout(Math.toIntExact(unit.toMillis(callTimeout))).build());
+    }
+
+    /**
+     * Warms the client up with {@code maxIdleConnections} connections, see {@link #warmUp(int)}
+     *
+     * @return {@link CompletableFuture} which completes once the client is ready
+     */
+    public CompletableFuture<Void> warmUp() {
+        return warmUp(parameters.getMaxIdleConnections());
+    }
+
+    /**
+     * Warms the client up before it gets traffic, so that the first calls do not pay for class loading, JIT compilation
+     * and handshakes. The signer is exercised on the calling thread, then the given number of signed pings are sent
+     * concurrently to open pooled connections. Over HTTP/2 all pings could share one connection
+     *
+     * @param connections Number of connections to open
+     * @return {@link CompletableFuture} which completes once the client is ready, see {@link #isReady()}
+     */
+    public CompletableFuture<Void> warmUp(final int connections) {
+        authorizationService.signHeaderBytes(signer, parameters.getKeyName(), Method.GET, parameters.getBaseUrl() + "api/ping", NO_CONTENT);
 
-        final Call call = okHttpClient.newCall(request);
+        // Coalesced pings would share a single connection
+        final Target365Client client = withParameters(parameters.toBuilder().coalescing(false).build());
+        final CompletableFuture<?>[] pings = IntStream.range(0, connections).mapToObj(i -> client.getPing()).toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(pings).thenRun(() -> ready.set(true));
+    }
+
+    /**
+     * Checks whether the client is warmed up, e.g. for a readiness probe
+     *
+     * @return true once {@link #warmUp(int)} has completed successfully, otherwise false
+     */
+    public boolean isReady() {
+        return ready.get();
+    }
 
-        return CompletableFuture.supplyAsync(() -> Util.wrap(call::execute))
-                .thenApplyAsync(response -> Util.wrap(() -> responseHandler.handle(response, codes)));
+    /**
+     * Gets a view of the client with other parameters, which shares everything else with this client
+     *
+     * @param viewParameters Parameters of the view
+     * @return A client
+     */
+    private Target365Client withParameters(final Parameters viewParameters) {
+        return new Target365Client(viewParameters, okHttpClient, executor, transport, concurrencyLimiter, circuitBreakers, rateLimiters, hedgers,
+                singleFlight, verifiers, nonces, ready, responseHandler, signer, authorizationService, objectMappingService, validationService, responseParsers);
     }
 
     /**
@@ -579,10 +837,8 @@ public class Target365Client implements Client {
      * @return A client
      */
     public static Target365Client getInstance(final String ecPrivateKeyAsString, final Parameters parameters) {
-        final OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                .connectTimeout(parameters.getConnectTimeout(), TimeUnit.MILLISECONDS)
-                .readTimeout(parameters.getReadTimeout(), TimeUnit.MILLISECONDS)
-                .writeTimeout(parameters.getWriteTimeout(), TimeUnit.MILLISECONDS).build();
+        final Executor executor = Optional.ofNullable(parameters.getExecutor()).orElseGet(Threads::defaultExecutor);
+        final OkHttpClient okHttpClient = Optional.ofNullable(parameters.getOkHttpClient()).orElseGet(() -> newOkHttpClient(parameters));
 
         final Map<Integer, ResponseParser> responseParsers = ImmutableMap.of(
                 Status.OK, new OkResponseParser(),
@@ -590,14 +846,86 @@ public class Target365Client implements Client {
                 Status.CREATED, new CreatedResponseParser()
         );
 
-        return new Target365Client(parameters, okHttpClient, new InvalidResponseHandler(),
-                EcdsaSigner.getInstance(ecPrivateKeyAsString), new EcdsaAuthorizationService(),
+        // Responses are handled on the dispatcher threads only if the executor backs the dispatcher, which a supplied
+        // OkHttp client usually does not
+        final Transport transport = parameters.getTransportMode() == Parameters.TransportMode.NON_BLOCKING
+                ? new NonBlockingTransport(okHttpClient.dispatcher().executorService() == executor ? null : executor)
+                : new BlockingTransport(executor);
+
+        final Map<EndpointFamily, CircuitBreaker> circuitBreakers = new EnumMap<>(EndpointFamily.class);
+        Optional.ofNullable(parameters.getCircuitBreakerPolicy()).ifPresent(policy -> Arrays.stream(EndpointFamily.values())
+                .forEach(family -> circuitBreakers.put(family, new CircuitBreaker(family.name(), policy))));
+
+        final Map<EndpointFamily, RateLimiter> rateLimiters = new EnumMap<>(EndpointFamily.class);
+        Optional.ofNullable(parameters.getRateLimitPolicies()).ifPresent(policies -> policies
+                .forEach((family, policy) -> rateLimiters.put(family, new RateLimiter(family.name(), policy, executor))));
+
+        // Every family has its own latencies, so slow exports do not delay hedging of fast lookups
+        final Map<EndpointFamily, Hedger> hedgers = new EnumMap<>(EndpointFamily.class);
+        Optional.ofNullable(parameters.getHedgePolicy()).ifPresent(policy -> Arrays.stream(EndpointFamily.values())
+                .forEach(family -> hedgers.put(family, new Hedger(policy, executor))));
+
+        final ConcurrencyLimiter concurrencyLimiter = Optional.ofNullable(parameters.getAdaptiveLimitPolicy())
+                .<ConcurrencyLimiter>map(AdaptiveConcurrencyLimiter::new)
+                .orElseGet(() -> new FixedConcurrencyLimiter(parameters.getMaxInFlightRequests()));
+
+        return new Target365Client(parameters, okHttpClient, executor, transport, concurrencyLimiter, circuitBreakers, rateLimiters, hedgers,
+                new SingleFlight(), Optional.ofNullable(parameters.getPublicKeyCachePolicy())
+                .map(policy -> new RefreshingCache<Verifier>(policy, Target365Client::isNotFound)).orElse(null),
+                parameters.isReplayProtection() ? new NonceCache() : null,
+                new AtomicBoolean(), new InvalidResponseHandler(),
+                newSigner(ecPrivateKeyAsString, parameters.getSigningEngine(), executor), new EcdsaAuthorizationService(),
                 JacksonObjectMappingService.getInstance(), new Jsr303ValidationService(),
                 responseParsers);
     }
 
+    /**
+     * Creates a new signer of the signing engine
+     *
+     * @param ecPrivateKeyAsString EC private key as a string
+     * @param signingEngine        Signing engine
+     * @param executor             Executor of the client
+     * @return Signer
+     */
+    private static Signer newSigner(final String ecPrivateKeyAsString, final Parameters.SigningEngine signingEngine, final Executor executor) {
+        switch (signingEngine) {
+            case COMB:
+                return CombEcdsaSigner.getInstance(ecPrivateKeyAsString);
+            case PRECOMPUTED:
+                return PrecomputedEcdsaSigner.getInstance(ecPrivateKeyAsString, executor);
+            default:
+                return EcdsaSigner.getInstance(ecPrivateKeyAsString);
+        }
+    }
+
+    /**
+     * Builds a new OkHttp client from the parameters
+     *
+     * @param parameters Parameters
+     * @return OkHttp client
+     */
+    static OkHttpClient newOkHttpClient(final Parameters parameters) {
+        // Caller-supplied executor service also runs the calls enqueued by the non-blocking transport
+        final Dispatcher dispatcher = parameters.getExecutor() instanceof ExecutorService
+                ? new Dispatcher((ExecutorService) parameters.getExecutor()) : new Dispatcher();
+        dispatcher.setMaxRequests(parameters.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(parameters.getMaxRequestsPerHost());
+
+        final OkHttpClient.Builder okHttpClientBuilder = new OkHttpClient.Builder()
+                .connectTimeout(parameters.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(parameters.getReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(parameters.getWriteTimeout(), TimeUnit.MILLISECONDS)
+                .connectionPool(new ConnectionPool(parameters.getMaxIdleConnections(), parameters.getKeepAliveDuration(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher);
+
+        Optional.ofNullable(parameters.getProtocols()).ifPresent(okHttpClientBuilder::protocols);
+
+        return okHttpClientBuilder.build();
+    }
+
     @Getter
-    @AllArgsConstructor
+    @Builder(toBuilder = true)
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
     public static final class Parameters {
 
         /**
@@ -605,18 +933,201 @@ public class Target365Client implements Client {
          */
         public static final int DEFAULT_TIMEOUT = 60_000;
 
+        /**
+         * Default maximum number of idle connections in the pool
+         */
+        public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+        /**
+         * Default time to keep idle connections in the pool in milliseconds
+         */
+        public static final int DEFAULT_KEEP_ALIVE_DURATION = 300_000;
+
+        /**
+         * Default maximum number of calls executed concurrently by the non-blocking transport.
+         * All calls go to the same host, so the same value is used as the per-host default
+         */
+        public static final int DEFAULT_MAX_REQUESTS = 64;
+
         private final String baseUrl;
         private final String keyName;
-        private final int connectTimeout;
-        private final int readTimeout;
-        private final int writeTimeout;
+        @Builder.Default
+        private final int connectTimeout = DEFAULT_TIMEOUT;
+        @Builder.Default
+        private final int readTimeout = DEFAULT_TIMEOUT;
+        @Builder.Default
+        private final int writeTimeout = DEFAULT_TIMEOUT;
+
+        /**
+         * Time in milliseconds within which every call has to complete, including waiting for a free slot, connecting,
+         * writing the request and reading the response. No timeout if <code>0</code>, see also
+         * {@link Target365Client#withCallTimeout(long, TimeUnit)}
+         */
+        private final int callTimeout;
+
+        /**
+         * How calls are handed over to OkHttp, see {@link TransportMode}
+         */
+        @Builder.Default
+        private final TransportMode transportMode = TransportMode.BLOCKING;
+
+        /**
+         * Executor which executes calls and processes responses, {@link Threads#defaultExecutor()} if <code>null</code>.
+         * If it is an {@link ExecutorService} then it also backs the OkHttp {@link Dispatcher} built by the client.
+         * Unless it backs the dispatcher, the non-blocking transport hands responses over to it from the dispatcher threads.
+         * On Java 21 or later {@link Threads#newVirtualThreadPerTaskExecutor()} could be used to execute blocking calls
+         * on virtual threads
+         */
+        private final Executor executor;
+
+        /**
+         * Maximum number of idle connections in the pool
+         */
+        @Builder.Default
+        private final int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+
+        /**
+         * Time to keep idle connections in the pool in milliseconds
+         */
+        @Builder.Default
+        private final int keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+
+        /**
+         * Maximum number of calls executed concurrently by the non-blocking transport
+         */
+        @Builder.Default
+        private final int maxRequests = DEFAULT_MAX_REQUESTS;
+
+        /**
+         * Maximum number of calls to the same host executed concurrently by the non-blocking transport
+         */
+        @Builder.Default
+        private final int maxRequestsPerHost = DEFAULT_MAX_REQUESTS;
+
+        /**
+         * Protocols in order of preference, OkHttp defaults if <code>null</code>
+         */
+        private final List<Protocol> protocols;
+
+        /**
+         * Pre-built OkHttp client. If set, it is used as is and timeouts, connection pool, dispatcher and protocols
+         * parameters are ignored
+         */
+        private final OkHttpClient okHttpClient;
+
+        /**
+         * Maximum number of calls of this client in flight, the rest of the calls wait for a free slot without occupying
+         * any thread. Unlimited by default. When clients share a transport (see {@link Target365ClientRegistry}),
+         * it keeps one client from occupying all shared connections
+         */
+        @Builder.Default
+        private final int maxInFlightRequests = Integer.MAX_VALUE;
+
+        /**
+         * Settings of the adaptive limit of calls in flight, which replaces {@link #maxInFlightRequests} if set.
+         * The limit follows the observed round-trip times, see {@link AdaptiveConcurrencyLimiter}
+         */
+        private final AdaptiveLimitPolicy adaptiveLimitPolicy;
+
+        /**
+         * Retry policy of idempotent calls, no retries if <code>null</code>. GET, PUT and DELETE calls are idempotent,
+         * POST calls only if a client-supplied transaction id lets the server recognize a repeated call.
+         * The budget of the policy is shared by all clients which use the same policy
+         */
+        private final RetryPolicy retryPolicy;
+
+        /**
+         * Thresholds of the circuit breakers, no circuit breaking if <code>null</code>. Every {@link EndpointFamily}
+         * has its own breaker, so that failing fast on an unhealthy family does not affect the others
+         */
+        private final CircuitBreakerPolicy circuitBreakerPolicy;
+
+        /**
+         * Rate limits per {@link EndpointFamily}, families without a policy are not rate limited.
+         * Rate limiters are not shared with other clients
+         */
+        private final Map<EndpointFamily, RateLimitPolicy> rateLimitPolicies;
+
+        /**
+         * Hedging of GET calls, no hedging if <code>null</code>. A GET call which is slower than the percentile
+         * of the recent calls of its {@link EndpointFamily} is sent once more and the first response wins
+         */
+        private final HedgePolicy hedgePolicy;
+
+        /**
+         * Whether concurrent GET calls with the same path and query params share one call and one result,
+         * e.g. when many workers poll the same transaction. Shared results must not be modified by the callers
+         */
+        private final boolean coalescing;
+
+        /**
+         * How requests are signed, see {@link SigningEngine}
+         */
+        @Builder.Default
+        private final SigningEngine signingEngine = SigningEngine.JCA;
+
+        /**
+         * Caching of the public keys which {@link Target365Client#verifySignature(String, String, String, String)}
+         * verifies with, no caching if <code>null</code>. A deleted or revoked key is still accepted until its cached
+         * verifier is refreshed, i.e. for up to {@code refreshAfter} or, while the refreshes fail, {@code expireAfter}
+         */
+        private final CachePolicy publicKeyCachePolicy;
+
+        /**
+         * Whether {@link Target365Client#verifySignature(String, String, String, String)} rejects a signed request whose
+         * nonce it has already seen within the validity window, see {@link NonceCache}
+         */
+        private final boolean replayProtection;
 
         public Parameters(final String baseUrl, final String keyName) {
-            this.baseUrl = baseUrl;
-            this.keyName = keyName;
-            this.connectTimeout = DEFAULT_TIMEOUT;
-            this.readTimeout = DEFAULT_TIMEOUT;
-            this.writeTimeout = DEFAULT_TIMEOUT;
+            this(baseUrl, keyName, DEFAULT_TIMEOUT, DEFAULT_TIMEOUT, DEFAULT_TIMEOUT);
+        }
+
+        public Parameters(
+                final String baseUrl, final String keyName, final int connectTimeout, final int readTimeout, final int writeTimeout
+        ) {
+            this(baseUrl, keyName, connectTimeout, readTimeout, writeTimeout, 0, TransportMode.BLOCKING, null,
+                    DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_DURATION, DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS, null, null, Integer.MAX_VALUE, null, null, null, null, null, false, SigningEngine.JCA,
+                    null, false);
+        }
+
+        /**
+         * Transport mode
+         */
+        public enum TransportMode {
+
+            /**
+             * Every in-flight call occupies a thread for the full network round-trip, see {@link BlockingTransport}
+             */
+            BLOCKING,
+
+            /**
+             * In-flight calls do not occupy any thread, see {@link NonBlockingTransport}
+             */
+            NON_BLOCKING
+        }
+
+        /**
+         * Signing engine
+         */
+        public enum SigningEngine {
+
+            /**
+             * Every signature is computed by the JCA provider, see {@link EcdsaSigner}
+             */
+            JCA,
+
+            /**
+             * Every signature is computed with a comb table of the curve generator, which is built once when the client is
+             * created, and with deterministic nonces, see {@link CombEcdsaSigner}
+             */
+            COMB,
+
+            /**
+             * Nonces are computed in advance by a background task on the executor, so that signing a request
+             * takes only a hash and a few modular operations, see {@link PrecomputedEcdsaSigner}
+             */
+            PRECOMPUTED
         }
     }
 
@@ -678,7 +1189,8 @@ public class Target365Client implements Client {
     @UtilityClass
     private static final class MediaType {
 
-        private static final okhttp3.MediaType APPLICATION_JSON = okhttp3.MediaType.parse("application/json");
+        // Charset is explicit, since bodies are sent as encoded bytes
+        private static final okhttp3.MediaType APPLICATION_JSON = okhttp3.MediaType.parse("application/json; charset=utf-8");
     }
 
     /**
@@ -0,0 +1,117 @@
+package io.target365.client;
+
+import io.target365.util.Threads;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import okhttp3.OkHttpClient;
+
+import java.io.Closeable;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Registry of clients for many accounts. Clients sign requests with their own key, but share a single OkHttp client
+ * (connection pool, dispatcher and TLS sessions) and executor. Every client has its own in-flight limit
+ * ({@code maxInFlightRequests}), so that a single busy account cannot occupy all shared connections. Unless the parameters
+ * limit it, every client may occupy a quarter of the requests the shared dispatcher executes concurrently.
+ * The limit is a static cap per client rather than a fair share: four busy accounts together may still occupy all requests
+ * of the dispatcher and make the others wait. In the blocking transport mode the dispatcher does not limit the calls at all,
+ * so the cap only bounds the calls and threads of each client
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Target365ClientRegistry implements Closeable {
+
+    /**
+     * Number of accounts which together may occupy all requests of the shared dispatcher by default
+     */
+    private static final int SHARE_DIVISOR = 4;
+
+    private final Target365Client.Parameters parameters;
+    private final ConcurrentMap<String, Account> accounts;
+    private final boolean ownsOkHttpClient;
+
+    /**
+     * Gets the client of the account, creating it on first use
+     *
+     * @param keyName              Key name of the account
+     * @param ecPrivateKeyAsString EC private key of the account as a string
+     * @return A client
+     * @throws IllegalArgumentException if the client of the account was created with another key, see {@link #removeClient(String)}
+     */
+    public Target365Client getClient(final String keyName, final String ecPrivateKeyAsString) {
+        final Account account = accounts.computeIfAbsent(keyName, k -> new Account(ecPrivateKeyAsString,
+                Target365Client.getInstance(ecPrivateKeyAsString, parameters.toBuilder().keyName(k).build())));
+
+        if (!account.ecPrivateKeyAsString.equals(ecPrivateKeyAsString)) {
+            throw new IllegalArgumentException("Client of " + keyName + " was created with another key");
+        }
+
+        return account.client;
+    }
+
+    /**
+     * Gets the client of the account if it was already created
+     *
+     * @param keyName Key name of the account
+     * @return A client
+     */
+    public Optional<Target365Client> findClient(final String keyName) {
+        return Optional.ofNullable(accounts.get(keyName)).map(account -> account.client);
+    }
+
+    /**
+     * Removes the client of the account, e.g. when its key is rotated
+     *
+     * @param keyName Key name of the account
+     * @return Removed client
+     */
+    public Optional<Target365Client> removeClient(final String keyName) {
+        return Optional.ofNullable(accounts.remove(keyName)).map(account -> account.client);
+    }
+
+    /**
+     * Removes all clients and closes idle shared connections, unless the OkHttp client was supplied by the caller
+     */
+    @Override
+    public void close() {
+        accounts.clear();
+
+        if (ownsOkHttpClient) {
+            parameters.getOkHttpClient().connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Gets a new registry. Key name in the parameters is ignored, all other parameters are used by every client
+     *
+     * @param parameters Parameters
+     * @return A registry
+     */
+    public static Target365ClientRegistry getInstance(final Target365Client.Parameters parameters) {
+        final Executor executor = Optional.ofNullable(parameters.getExecutor()).orElseGet(Threads::defaultExecutor);
+        // Shared dispatcher runs on the shared executor, so that responses are not handed over to it once more
+        final OkHttpClient okHttpClient = Optional.ofNullable(parameters.getOkHttpClient())
+                .orElseGet(() -> Target365Client.newOkHttpClient(parameters.toBuilder().executor(executor).build()));
+
+        // Unlimited clients would let a busy account occupy all shared connections
+        final int maxInFlightRequests = parameters.getMaxInFlightRequests() == Integer.MAX_VALUE
+                ? Math.max(1, okHttpClient.dispatcher().getMaxRequests() / SHARE_DIVISOR) : parameters.getMaxInFlightRequests();
+
+        final Target365Client.Parameters sharedParameters = parameters.toBuilder().executor(executor).okHttpClient(okHttpClient)
+                .maxInFlightRequests(maxInFlightRequests).build();
+
+        return new Target365ClientRegistry(sharedParameters, new ConcurrentHashMap<>(), parameters.getOkHttpClient() == null);
+    }
+
+    /**
+     * Client of an account and the key it was created with
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Account {
+
+        private final String ecPrivateKeyAsString;
+        private final Target365Client client;
+    }
+}
@@ -0,0 +1,14 @@
+package io.target365.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final String name;
+
+}
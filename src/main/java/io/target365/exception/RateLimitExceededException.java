@@ -0,0 +1,15 @@
+package io.target365.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String name;
+    private final String sender;
+
+}
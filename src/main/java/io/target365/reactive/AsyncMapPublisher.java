@@ -0,0 +1,241 @@
+package io.target365.reactive;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Publisher which maps every element of the source publisher with an asynchronous call and emits the results
+ * in completion order. Elements are requested from the source only while fewer than <code>maxConcurrency</code>
+ * elements are in flight or waiting for downstream demand, so memory use is bounded whatever the size of the source.
+ * The first failed call terminates the stream with its error, <code>null</code> results are skipped
+ *
+ * @param <T> Type of the source elements
+ * @param <R> Type of the results
+ */
+public class AsyncMapPublisher<T, R> implements Publisher<R> {
+
+    private final Publisher<T> source;
+    private final Function<T, CompletableFuture<R>> mapper;
+    private final int maxConcurrency;
+
+    /**
+     * Creates a new publisher
+     *
+     * @param source         Source publisher
+     * @param mapper         Asynchronous call of an element
+     * @param maxConcurrency Maximum number of elements in flight or waiting for downstream demand
+     * @throws IllegalArgumentException if maxConcurrency is not positive
+     */
+    public AsyncMapPublisher(
+            final Publisher<T> source, final Function<T, CompletableFuture<R>> mapper, final int maxConcurrency
+    ) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        this.source = source;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super R> subscriber) {
+        // Rule 1.9 allows only a NullPointerException to be thrown from subscribe
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        source.subscribe(new MapSubscriber<>(subscriber, mapper, maxConcurrency));
+    }
+
+    private static final class MapSubscriber<T, R> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super R> downstream;
+        private final Function<T, CompletableFuture<R>> mapper;
+        private final int maxConcurrency;
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final Queue<R> results = new ConcurrentLinkedQueue<>();
+        private final Set<CompletableFuture<R>> calls = ConcurrentHashMap.newKeySet();
+
+        private volatile Subscription upstream;
+        private volatile boolean upstreamDone;
+        private volatile boolean cancelled;
+
+        /**
+         * Elements requested from the source, which are not emitted downstream yet. Accessed by the drain loop only
+         */
+        private long outstanding;
+        private boolean done;
+
+        private MapSubscriber(
+                final Subscriber<? super R> downstream, final Function<T, CompletableFuture<R>> mapper, final int maxConcurrency
+        ) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            drain();
+        }
+
+        @Override
+        public void onNext(final T element) {
+            if (cancelled || upstreamDone) {
+                return;
+            }
+
+            final CompletableFuture<R> call;
+
+            try {
+                call = mapper.apply(Objects.requireNonNull(element, "element"));
+            } catch (Throwable t) {
+                onError(t);
+                return;
+            }
+
+            inFlight.incrementAndGet();
+            calls.add(call);
+
+            call.whenComplete((result, throwable) -> {
+                calls.remove(call);
+
+                if (throwable != null) {
+                    error.compareAndSet(null, throwable);
+                } else if (result != null) {
+                    results.offer(result);
+                } else {
+                    skipped.incrementAndGet();
+                }
+
+                inFlight.decrementAndGet();
+                drain();
+            });
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.compareAndSet(null, throwable);
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                onError(new IllegalArgumentException("Requested " + n + " elements, but request must be positive"));
+                return;
+            }
+
+            requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            calls.forEach(c -> c.cancel(true));
+            drain();
+        }
+
+        /**
+         * Emits completed results, terminal signals and requests more elements from the source.
+         * Only one thread drains at a time, other threads just mark that the state should be checked again
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                if (done || cancelled) {
+                    results.clear();
+                } else if (upstream != null) {
+                    drainOnce();
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            final long demand = requested.get();
+            long emitted = 0;
+
+            while (emitted != demand && !cancelled && error.get() == null) {
+                final R result = results.poll();
+
+                if (result == null) {
+                    break;
+                }
+
+                downstream.onNext(result);
+                emitted++;
+            }
+
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+
+            outstanding -= emitted + skipped.getAndSet(0);
+
+            if (cancelled) {
+                return;
+            }
+
+            final Throwable throwable = error.get();
+
+            if (throwable != null) {
+                done = true;
+                upstream.cancel();
+                calls.forEach(c -> c.cancel(true));
+                downstream.onError(throwable);
+                return;
+            }
+
+            if (upstreamDone && inFlight.get() == 0 && results.isEmpty()) {
+                done = true;
+                downstream.onComplete();
+                return;
+            }
+
+            if (!upstreamDone && outstanding < maxConcurrency) {
+                final long n = maxConcurrency - outstanding;
+                outstanding = maxConcurrency;
+                upstream.request(n);
+            }
+        }
+    }
+}
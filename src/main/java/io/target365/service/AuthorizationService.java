@@ -1,5 +1,7 @@
 package io.target365.service;
 
+import java.nio.charset.StandardCharsets;
+
 public interface AuthorizationService {
 
     String signHeader(
@@ -7,6 +9,23 @@ public interface AuthorizationService {
         final String uri, final String content
     );
 
+    /**
+     * Signs the request whose body is already encoded, so that the body is not encoded again for hashing
+     *
+     * @param signer  Signer
+     * @param key     Key name
+     * @param method  HTTP method
+     * @param uri     Full URI
+     * @param content UTF-8 encoded body, empty if there is no body
+     * @return Authorization header
+     */
+    default String signHeaderBytes(
+        final Signer signer, final String key, final String method,
+        final String uri, final byte[] content
+    ) {
+        return signHeader(signer, key, method, uri, content == null ? null : new String(content, StandardCharsets.UTF_8));
+    }
+
     Boolean verifyHeader(
         final Verifier verifier, final String method, final String uri, final long timestamp,
         final String nonce, final String content, final String sign
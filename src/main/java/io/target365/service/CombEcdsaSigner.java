@@ -0,0 +1,85 @@
+package io.target365.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Signs messages with SHA256withECDSA using BouncyCastle's low-level EC classes. The fixed-point comb table of the curve
+ * generator is built once when the signer is created, and every signature reuses it for k·G. Nonces are derived
+ * deterministically from the private key and the hash (RFC 6979), so signing does not draw from a shared random source.
+ * Signatures have the same format as the ones of {@link EcdsaSigner} and are verified by {@link EcdsaVerifier}
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CombEcdsaSigner implements Signer {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final ThreadLocal<State> states;
+
+    @Override
+    public String sign(final String message) {
+        final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+
+        return sign(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public String sign(final byte[] message, final int offset, final int length) {
+        final State state = states.get();
+        state.digest.update(message, offset, length);
+
+        final BigInteger[] signature = state.signer.generateSignature(state.digest.digest());
+
+        BigIntegers.asUnsignedByteArray(signature[0], state.raw, 0, state.width);
+        BigIntegers.asUnsignedByteArray(signature[1], state.raw, state.width, state.width);
+
+        return Base64.getEncoder().encodeToString(state.raw);
+    }
+
+    public static CombEcdsaSigner getInstance(final String ecPrivateKeyAsString) {
+        final ECPrivateKeyParameters parameters = EcPrivateKeys.parse(ecPrivateKeyAsString);
+        final ECDomainParameters domain = parameters.getParameters();
+
+        FixedPointUtil.precompute(domain.getG());
+
+        return new CombEcdsaSigner(ThreadLocal.withInitial(() -> new State(parameters)));
+    }
+
+    /**
+     * Signer, digest and buffer for r||s, all owned by a single thread
+     */
+    private static final class State {
+
+        private final ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        private final MessageDigest digest;
+        private final int width;
+        private final byte[] raw;
+
+        private State(final ECPrivateKeyParameters parameters) {
+            try {
+                this.digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+
+            // Signer multiplies the generator with a fixed-point comb multiplier, which uses the precomputed table
+            this.signer.init(true, parameters);
+            this.width = (parameters.getParameters().getN().bitLength() + 7) / 8;
+            this.raw = new byte[2 * width];
+        }
+    }
+
+}
@@ -3,34 +3,51 @@ package io.target365.service;
 import io.target365.util.Util;
 import lombok.AllArgsConstructor;
 
-import javax.xml.bind.DatatypeConverter;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.time.ZonedDateTime;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Signs and verifies requests. The signed message is assembled in a buffer owned by the current thread and passed
+ * to the signer or verifier as bytes, and the body is hashed from its encoded bytes. Timestamps come from the
+ * {@link Clock} and nonces from the {@link NonceGenerator}, by default the system clock and a {@link RandomNonceGenerator}
+ */
 @AllArgsConstructor
 public class EcdsaAuthorizationService implements AuthorizationService {
 
     private static final String HMAC = "HMAC";
     private static final String DIGEST_ALGORITHM = "SHA-256";
 
+    private static final ThreadLocal<Message> MESSAGES = ThreadLocal.withInitial(Message::new);
+
+    private final Clock clock;
+    private final NonceGenerator nonceGenerator;
+
+    public EcdsaAuthorizationService() {
+        this(Clock.systemUTC(), RandomNonceGenerator.getInstance());
+    }
+
     @Override
     public String signHeader(
         final Signer signer, final String key, final String method,
         final String uri, final String content
     ) {
-        final long timestamp = ZonedDateTime.now().toEpochSecond();
-        final String nonce = UUID.randomUUID().toString();
-        final String hash = Optional.ofNullable(content).filter(s -> !s.isEmpty())
-            .map(s -> s.getBytes(StandardCharsets.UTF_8))
-            .map(b -> Util.wrap(() -> MessageDigest.getInstance(DIGEST_ALGORITHM).digest(b)))
-            .map(DatatypeConverter::printBase64Binary)
-            .orElse("");
+        return signHeaderBytes(signer, key, method, uri, content == null ? null : content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String signHeaderBytes(
+        final Signer signer, final String key, final String method,
+        final String uri, final byte[] content
+    ) {
+        final long timestamp = TimeUnit.MILLISECONDS.toSeconds(clock.millis());
+        final String nonce = nonceGenerator.next();
 
-        final String message = method.toLowerCase() + uri.toLowerCase() + timestamp + nonce + hash;
-        final String sign = signer.sign(message);
+        final Message message = MESSAGES.get().of(method, uri, timestamp, nonce, content);
+        final String sign = signer.sign(message.bytes, 0, message.length);
 
         return HMAC + " " + key + ":" + timestamp + ":" + nonce + ":" + sign;
     }
@@ -40,15 +57,92 @@ public class EcdsaAuthorizationService implements AuthorizationService {
         final Verifier verifier, final String method, final String uri, final long timestamp,
         final String nonce, final String content, final String sign
     ) {
-        final String hash = Optional.ofNullable(content).filter(s -> !s.isEmpty())
-            .map(s -> s.getBytes(StandardCharsets.UTF_8))
-            .map(b -> Util.wrap(() -> MessageDigest.getInstance(DIGEST_ALGORITHM).digest(b)))
-            .map(DatatypeConverter::printBase64Binary)
-            .orElse("");
+        final Message message = MESSAGES.get().of(method, uri, timestamp, nonce,
+            content == null ? null : content.getBytes(StandardCharsets.UTF_8));
+
+        return verifier.verify(message.bytes, 0, message.length, sign);
+    }
+
+    /**
+     * Reusable buffer of the signed message, which is the lower-cased method and URI, the timestamp, the nonce and
+     * the Base64 encoded SHA-256 hash of the body, if there is one
+     */
+    private static final class Message {
+
+        private final MessageDigest digest = Util.wrap(() -> MessageDigest.getInstance(DIGEST_ALGORITHM));
+        private final byte[] hash = new byte[44];
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        private Message of(final String method, final String uri, final long timestamp, final String nonce, final byte[] content) {
+            length = 0;
+
+            append(method, true);
+            append(uri, true);
+            append(timestamp);
+            append(nonce, false);
+
+            if (content != null && content.length > 0) {
+                final int hashLength = Base64.getEncoder().encode(digest.digest(content), hash);
+                append(hash, hashLength);
+            }
+
+            return this;
+        }
+
+        private void append(final String string, final boolean lowerCase) {
+            ensureCapacity(string.length());
+
+            for (int i = 0; i < string.length(); i++) {
+                final char c = string.charAt(i);
+
+                if (c >= 0x80) {
+                    // Rare non-ASCII strings are encoded the usual way
+                    length -= i;
+                    final byte[] encoded = (lowerCase ? string.toLowerCase() : string).getBytes(StandardCharsets.UTF_8);
+                    append(encoded, encoded.length);
+                    return;
+                }
+
+                bytes[length++] = (byte) (lowerCase && c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+            }
+        }
+
+        private void append(final long value) {
+            if (value < 0) {
+                append(Long.toString(value), false);
+                return;
+            }
+
+            int digits = 1;
+
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+
+            ensureCapacity(digits);
+
+            long rest = value;
+
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + rest % 10);
+                rest /= 10;
+            }
+
+            length += digits;
+        }
 
-        final String message = method.toLowerCase() + uri.toLowerCase() + timestamp + nonce + hash;
+        private void append(final byte[] source, final int sourceLength) {
+            ensureCapacity(sourceLength);
+            System.arraycopy(source, 0, bytes, length, sourceLength);
+            length += sourceLength;
+        }
 
-        return verifier.verify(message, sign);
+        private void ensureCapacity(final int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + additional));
+            }
+        }
     }
 
 }
@@ -0,0 +1,160 @@
+package io.target365.service;
+
+import java.security.SignatureException;
+
+/**
+ * Converts ECDSA signatures between the DER encoding used by {@link java.security.Signature} and the fixed-width
+ * r||s encoding used in the authorization header. Works directly on bytes, without ASN.1 objects or big integers
+ */
+final class EcdsaSignatures {
+
+    private static final int SEQUENCE = 0x30;
+    private static final int INTEGER = 0x02;
+
+    private EcdsaSignatures() {
+    }
+
+    /**
+     * Gets the largest DER length of a signature for the given width
+     *
+     * @param width Width of r and s in bytes
+     * @return Largest DER length in bytes
+     */
+    static int maxDerLength(final int width) {
+        // Sequence header (up to 3 bytes) and two integers with a header and a leading zero byte each
+        return 3 + 2 * (2 + 1 + width);
+    }
+
+    /**
+     * Writes r||s of the DER encoded signature into the buffer
+     *
+     * @param der   DER encoded signature
+     * @param width Width of r and s in bytes
+     * @param raw   Buffer of at least 2 * width bytes
+     * @throws SignatureException If the signature is not a valid DER sequence of two integers of the given width
+     */
+    static void toRaw(final byte[] der, final int width, final byte[] raw) throws SignatureException {
+        if (der.length < 2 || (der[0] & 0xFF) != SEQUENCE) {
+            throw new SignatureException("Invalid DER signature");
+        }
+
+        int offset = 1;
+        int length = der[offset++] & 0xFF;
+
+        if (length == 0x81 && der.length > 2) {
+            length = der[offset++] & 0xFF;
+        } else if (length > 0x7F) {
+            throw new SignatureException("Invalid DER signature");
+        }
+
+        if (offset + length != der.length) {
+            throw new SignatureException("Invalid DER signature");
+        }
+
+        offset = readInteger(der, offset, width, raw, 0);
+        offset = readInteger(der, offset, width, raw, width);
+
+        if (offset != der.length) {
+            throw new SignatureException("Invalid DER signature");
+        }
+    }
+
+    /**
+     * Writes DER encoding of r||s into the buffer
+     *
+     * @param raw   Signature as r||s
+     * @param width Width of r and s in bytes
+     * @param der   Buffer of at least {@link #maxDerLength(int)} bytes
+     * @return Number of bytes written
+     */
+    static int toDer(final byte[] raw, final int width, final byte[] der) {
+        final int rStart = firstSignificant(raw, 0, width);
+        final int sStart = firstSignificant(raw, width, width);
+        final int rLength = integerLength(raw, rStart, width - rStart);
+        final int sLength = integerLength(raw, sStart, 2 * width - sStart);
+        final int length = 2 + rLength + 2 + sLength;
+
+        int offset = 0;
+        der[offset++] = (byte) SEQUENCE;
+
+        if (length > 0x7F) {
+            der[offset++] = (byte) 0x81;
+        }
+
+        der[offset++] = (byte) length;
+
+        offset = writeInteger(raw, rStart, width - rStart, rLength, der, offset);
+        offset = writeInteger(raw, sStart, 2 * width - sStart, sLength, der, offset);
+
+        return offset;
+    }
+
+    private static int readInteger(final byte[] der, int offset, final int width, final byte[] raw, final int rawOffset) throws SignatureException {
+        if (offset + 2 > der.length || (der[offset++] & 0xFF) != INTEGER) {
+            throw new SignatureException("Invalid DER signature");
+        }
+
+        int length = der[offset++] & 0xFF;
+
+        if (length == 0 || length > 0x7F || offset + length > der.length) {
+            throw new SignatureException("Invalid DER signature");
+        }
+
+        final int end = offset + length;
+
+        // Positive integers can have leading zero bytes, which are not part of the fixed-width value
+        while (length > width && der[offset] == 0) {
+            offset++;
+            length--;
+        }
+
+        if (length > width) {
+            throw new SignatureException("Invalid DER signature");
+        }
+
+        final int padding = width - length;
+
+        for (int i = 0; i < padding; i++) {
+            raw[rawOffset + i] = 0;
+        }
+
+        System.arraycopy(der, offset, raw, rawOffset + padding, length);
+
+        return end;
+    }
+
+    private static int writeInteger(final byte[] raw, final int start, final int length, final int encodedLength,
+                                     final byte[] der, int offset) {
+        der[offset++] = (byte) INTEGER;
+        der[offset++] = (byte) encodedLength;
+
+        if (encodedLength > length) {
+            der[offset++] = 0;
+        }
+
+        System.arraycopy(raw, start, der, offset, length);
+
+        return offset + length;
+    }
+
+    /**
+     * Gets position of the first non-zero byte, keeping at least one byte
+     */
+    private static int firstSignificant(final byte[] raw, final int offset, final int width) {
+        int start = offset;
+
+        while (start < offset + width - 1 && raw[start] == 0) {
+            start++;
+        }
+
+        return start;
+    }
+
+    /**
+     * Gets length of the positive integer, which needs a leading zero byte if its high bit is set
+     */
+    private static int integerLength(final byte[] raw, final int start, final int length) {
+        return (raw[start] & 0x80) != 0 ? length + 1 : length;
+    }
+
+}
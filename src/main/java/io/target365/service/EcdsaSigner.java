@@ -2,49 +2,52 @@ package io.target365.service;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import org.bouncycastle.asn1.ASN1InputStream;
-import org.bouncycastle.asn1.ASN1Integer;
-import org.bouncycastle.asn1.DLSequence;
 
 import javax.xml.bind.DatatypeConverter;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
-import java.security.PrivateKey;
 import java.security.Signature;
 import java.security.SignatureException;
+import java.security.interfaces.ECPrivateKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
 
+/**
+ * Signs messages with SHA256withECDSA. Every thread reuses its own {@link Signature} initialized with the private key,
+ * which {@link Signature#sign()} resets for the next message, so provider lookup and key initialization happen
+ * once per thread rather than once per message
+ */
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class EcdsaSigner implements Signer {
 
-    private static final int RADIX = 16;
-
     private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
     private static final String KEY_FACTORY_ALGORITHM = "EC";
 
-    private final PrivateKey privateKey;
+    private final ThreadLocal<State> states;
 
     @Override
     public String sign(final String message) {
-        try {
-            final Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-            signature.initSign(privateKey);
-            signature.update(message.getBytes(StandardCharsets.UTF_8));
+        final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+
+        return sign(bytes, 0, bytes.length);
+    }
 
-            final byte[] bytes = signature.sign();
-            final DLSequence dlSequence = (DLSequence) new ASN1InputStream(bytes).readObject();
+    @Override
+    public String sign(final byte[] message, final int offset, final int length) {
+        final State state = states.get();
+
+        try {
+            state.signature.update(message, offset, length);
 
-            final String x = String.format("%64s", ((ASN1Integer) dlSequence.getObjectAt(0)).getPositiveValue().toString(RADIX))
-                .replaceAll(" ", "0").toUpperCase();
-            final String y = String.format("%64s", ((ASN1Integer) dlSequence.getObjectAt(1)).getPositiveValue().toString(RADIX))
-                .replaceAll(" ", "0").toUpperCase();
+            EcdsaSignatures.toRaw(state.signature.sign(), state.width, state.raw);
 
-            return DatatypeConverter.printBase64Binary(DatatypeConverter.parseHexBinary(x + y));
-        } catch (NoSuchAlgorithmException | InvalidKeyException | SignatureException | IOException e) {
+            return Base64.getEncoder().encodeToString(state.raw);
+        } catch (SignatureException e) {
+            // Signature could be left in an unknown state, so the thread initializes a new one next time
+            states.remove();
             throw new RuntimeException(e);
         }
     }
@@ -60,10 +63,37 @@ public class EcdsaSigner implements Signer {
 
             final PKCS8EncodedKeySpec pkcs8EncodedKeySpec = new PKCS8EncodedKeySpec(DatatypeConverter.parseBase64Binary(rawEcPrivateKey));
 
-            return new EcdsaSigner(KeyFactory.getInstance(KEY_FACTORY_ALGORITHM).generatePrivate(pkcs8EncodedKeySpec));
+            final ECPrivateKey privateKey = (ECPrivateKey) KeyFactory.getInstance(KEY_FACTORY_ALGORITHM).generatePrivate(pkcs8EncodedKeySpec);
+
+            // Fail fast on a key which cannot be used for signing
+            new State(privateKey);
+
+            return new EcdsaSigner(ThreadLocal.withInitial(() -> new State(privateKey)));
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Signature initialized for signing and a buffer for r||s, both owned by a single thread
+     */
+    private static final class State {
+
+        private final Signature signature;
+        private final int width;
+        private final byte[] raw;
+
+        private State(final ECPrivateKey privateKey) {
+            try {
+                this.signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+                this.signature.initSign(privateKey);
+            } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                throw new RuntimeException(e);
+            }
+
+            this.width = (privateKey.getParams().getOrder().bitLength() + 7) / 8;
+            this.raw = new byte[2 * width];
+        }
+    }
+
 }
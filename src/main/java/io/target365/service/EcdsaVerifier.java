@@ -2,60 +2,54 @@ package io.target365.service;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import org.bouncycastle.asn1.ASN1EncodableVector;
-import org.bouncycastle.asn1.ASN1Integer;
-import org.bouncycastle.asn1.ASN1OutputStream;
-import org.bouncycastle.asn1.DLSequence;
 
 import javax.xml.bind.DatatypeConverter;
-import java.io.ByteArrayOutputStream;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
-import java.security.PublicKey;
 import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
 
+/**
+ * Verifies SHA256withECDSA signatures in r||s encoding. Every thread reuses its own {@link Signature} initialized
+ * with the public key and a buffer for the DER encoding of the signature
+ */
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class EcdsaVerifier implements Verifier {
 
-    private static final int RADIX = 16;
-
     private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
     private static final String KEY_FACTORY_ALGORITHM = "EC";
 
-    private final PublicKey publicKey;
+    private final ThreadLocal<State> states;
 
     @Override
     public boolean verify(final String message, final String sign) {
-        try {
-            final Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
-            signature.initVerify(publicKey);
-            signature.update(message.getBytes(StandardCharsets.UTF_8));
+        final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
 
-            final String xy = DatatypeConverter.printHexBinary(DatatypeConverter.parseBase64Binary(sign));
-            final String x = xy.substring(0, 64);
-            final String y = xy.substring(64, xy.length());
+        return verify(bytes, 0, bytes.length, sign);
+    }
 
-            final ASN1EncodableVector asn1EncodableVector = new ASN1EncodableVector();
-            asn1EncodableVector.add(new ASN1Integer(new BigInteger(x, RADIX)));
-            asn1EncodableVector.add(new ASN1Integer(new BigInteger(y, RADIX)));
+    @Override
+    public boolean verify(final byte[] message, final int offset, final int length, final String sign) {
+        final State state = states.get();
 
-            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            final ASN1OutputStream asn1OutputStream = ASN1OutputStream.create(byteArrayOutputStream);
-            asn1OutputStream.writeObject(new DLSequence(asn1EncodableVector));
+        try {
+            final byte[] raw = Base64.getDecoder().decode(sign);
 
-            final byte[] bytes = byteArrayOutputStream.toByteArray();
+            if (raw.length != 2 * state.width) {
+                return false;
+            }
 
-            asn1OutputStream.flush();
-            asn1OutputStream.close();
-            byteArrayOutputStream.flush();
-            byteArrayOutputStream.close();
+            state.signature.update(message, offset, length);
 
-            return signature.verify(bytes);
+            return state.signature.verify(state.der, 0, EcdsaSignatures.toDer(raw, state.width, state.der));
         } catch (Exception e) {
+            // Signature could be left in an unknown state, so the thread initializes a new one next time
+            states.remove();
             throw new RuntimeException(e);
         }
     }
@@ -71,9 +65,36 @@ public class EcdsaVerifier implements Verifier {
 
             final X509EncodedKeySpec x509EncodedKeySpec = new X509EncodedKeySpec(DatatypeConverter.parseBase64Binary(rawEcPublicKey));
 
-            return new EcdsaVerifier(KeyFactory.getInstance(KEY_FACTORY_ALGORITHM).generatePublic(x509EncodedKeySpec));
+            final ECPublicKey publicKey = (ECPublicKey) KeyFactory.getInstance(KEY_FACTORY_ALGORITHM).generatePublic(x509EncodedKeySpec);
+
+            // Fail fast on a key which cannot be used for verification
+            new State(publicKey);
+
+            return new EcdsaVerifier(ThreadLocal.withInitial(() -> new State(publicKey)));
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Signature initialized for verification and a buffer for the DER encoding, both owned by a single thread
+     */
+    private static final class State {
+
+        private final Signature signature;
+        private final int width;
+        private final byte[] der;
+
+        private State(final ECPublicKey publicKey) {
+            try {
+                this.signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+                this.signature.initVerify(publicKey);
+            } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+                throw new RuntimeException(e);
+            }
+
+            this.width = (publicKey.getParams().getOrder().bitLength() + 7) / 8;
+            this.der = new byte[EcdsaSignatures.maxDerLength(width)];
+        }
+    }
 }
@@ -19,6 +19,11 @@ public class JacksonObjectMappingService implements ObjectMappingService {
         return Util.wrap(() -> objectMapper.writeValueAsString(object));
     }
 
+    @Override
+    public byte[] toBytes(final Object object) {
+        return Util.wrap(() -> objectMapper.writeValueAsBytes(object));
+    }
+
     @Override
     public <T> T toObject(final String string, final Class<T> clazz) {
         return string == null ? null : Util.wrap(() -> objectMapper.readValue(string, clazz));
@@ -0,0 +1,280 @@
+package io.target365.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Remembers nonces of signed requests within their validity window, so that a captured request cannot be replayed.
+ * Nonces are kept in time buckets by the signed timestamp, so a replay always lands in the bucket of the original
+ * request and a bucket is dropped as a whole once its requests are too old to be accepted. Every bucket is split into
+ * lock-striped sets of 64-bit hashes, so concurrent callers rarely wait for each other. The number of remembered nonces
+ * is bounded, and once the bound is reached new nonces are rejected until old buckets are dropped
+ */
+public class NonceCache {
+
+    /**
+     * Default validity window of signed requests in seconds
+     */
+    public static final long DEFAULT_WINDOW = 5 * 60;
+
+    /**
+     * Default maximum number of remembered nonces
+     */
+    public static final int DEFAULT_MAX_SIZE = 1_000_000;
+
+    private static final int BUCKETS = 32;
+    private static final int STRIPES = 64;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    private final Clock clock;
+    private final long window;
+    private final int maxSize;
+    private final long bucketDuration;
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public NonceCache() {
+        this(Clock.systemUTC(), DEFAULT_WINDOW, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new cache
+     *
+     * @param clock   Clock
+     * @param window  Validity window of signed requests in seconds
+     * @param maxSize Maximum number of remembered nonces
+     */
+    public NonceCache(final Clock clock, final long window, final int maxSize) {
+        this.clock = clock;
+        this.window = window;
+        this.maxSize = maxSize;
+        // Window plus one bucket for the current time and one for the clock drift always fit into the ring
+        this.bucketDuration = Math.max(1, (window + BUCKETS - 3) / (BUCKETS - 2));
+    }
+
+    /**
+     * Remembers the nonce of the signed request
+     *
+     * @param keyName   Key name the request is signed with
+     * @param nonce     Nonce of the request
+     * @param timestamp Timestamp of the request in epoch seconds
+     * @return true if the nonce is new, false if it was seen before, the timestamp is out of the window or the cache is full
+     */
+    public boolean add(final String keyName, final String nonce, final long timestamp) {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(clock.millis());
+
+        if (timestamp < now - window || timestamp > now + bucketDuration) {
+            return false;
+        }
+
+        final Bucket bucket = bucket(Math.floorDiv(timestamp, bucketDuration), Math.floorDiv(now - window, bucketDuration));
+
+        if (bucket == null) {
+            return false;
+        }
+
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return false;
+        }
+
+        if (!bucket.add(hash(keyName, nonce))) {
+            size.decrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets number of remembered nonces
+     *
+     * @return Number of remembered nonces
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Gets the bucket of the index, replacing the bucket which occupied its slot before
+     *
+     * @param index    Index of the bucket
+     * @param minIndex Index of the oldest bucket within the window
+     * @return Bucket or <code>null</code> if its slot is already taken by a later bucket
+     */
+    private Bucket bucket(final long index, final long minIndex) {
+        final int slot = (int) Math.floorMod(index, (long) BUCKETS);
+
+        while (true) {
+            final Bucket bucket = buckets.get(slot);
+
+            if (bucket != null && bucket.index == index) {
+                return bucket;
+            }
+
+            if (bucket != null && bucket.index > index) {
+                return null;
+            }
+
+            final Bucket next = new Bucket(index);
+
+            if (buckets.compareAndSet(slot, bucket, next)) {
+                if (bucket != null) {
+                    size.addAndGet(-bucket.close());
+                }
+
+                // New bucket starts at most once per bucket duration, which is when the other buckets could have expired
+                expire(minIndex);
+
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets which are older than the window. Requests of such buckets are too old to be accepted,
+     * so their nonces are forgotten
+     *
+     * @param minIndex Index of the oldest bucket within the window
+     */
+    private void expire(final long minIndex) {
+        for (int slot = 0; slot < BUCKETS; slot++) {
+            final Bucket bucket = buckets.get(slot);
+
+            if (bucket != null && bucket.index < minIndex && buckets.compareAndSet(slot, bucket, null)) {
+                size.addAndGet(-bucket.close());
+            }
+        }
+    }
+
+    /**
+     * Hashes the key name and the nonce, so that every nonce takes 8 bytes however long it is
+     */
+    private static long hash(final String keyName, final String nonce) {
+        final MessageDigest digest = DIGESTS.get();
+        digest.update(keyName.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+
+        final byte[] bytes = digest.digest(nonce.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (bytes[i] & 0xFF);
+        }
+
+        // Zero marks an empty slot of the set
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Nonces of the requests signed within a time bucket
+     */
+    private static final class Bucket {
+
+        private final long index;
+        private final LongSet[] stripes = new LongSet[STRIPES];
+
+        private Bucket(final long index) {
+            this.index = index;
+
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new LongSet();
+            }
+        }
+
+        private boolean add(final long hash) {
+            return stripes[(int) (hash >>> 58)].add(hash);
+        }
+
+        /**
+         * Rejects all further nonces and gets the number of nonces the bucket had
+         */
+        private int close() {
+            int closed = 0;
+
+            for (final LongSet stripe : stripes) {
+                closed += stripe.close();
+            }
+
+            return closed;
+        }
+    }
+
+    /**
+     * Open addressing set of non-zero longs
+     */
+    private static final class LongSet {
+
+        private long[] table = new long[16];
+        private int count;
+        private boolean closed;
+
+        private synchronized boolean add(final long value) {
+            if (closed) {
+                return false;
+            }
+
+            if (2 * (count + 1) > table.length) {
+                resize();
+            }
+
+            if (insert(table, value)) {
+                count++;
+                return true;
+            }
+
+            return false;
+        }
+
+        private synchronized int close() {
+            closed = true;
+            table = new long[0];
+
+            final int closedCount = count;
+            count = 0;
+
+            return closedCount;
+        }
+
+        private void resize() {
+            final long[] resized = new long[2 * table.length];
+
+            for (final long value : table) {
+                if (value != 0) {
+                    insert(resized, value);
+                }
+            }
+
+            table = resized;
+        }
+
+        private static boolean insert(final long[] table, final long value) {
+            final int mask = table.length - 1;
+
+            for (int i = (int) value & mask; ; i = (i + 1) & mask) {
+                if (table[i] == value) {
+                    return false;
+                }
+
+                if (table[i] == 0) {
+                    table[i] = value;
+                    return true;
+                }
+            }
+        }
+    }
+
+}
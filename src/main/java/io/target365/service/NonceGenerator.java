@@ -0,0 +1,12 @@
+package io.target365.service;
+
+public interface NonceGenerator {
+
+    /**
+     * Generates a new nonce, which should never repeat
+     *
+     * @return Nonce
+     */
+    String next();
+
+}
@@ -2,6 +2,8 @@ package io.target365.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import java.nio.charset.StandardCharsets;
+
 public interface ObjectMappingService {
 
     /**
@@ -12,6 +14,16 @@ public interface ObjectMappingService {
      */
     String toString(final Object object);
 
+    /**
+     * Converts any object to a UTF-8 encoded JSON representation
+     *
+     * @param object Object to convert
+     * @return UTF-8 encoded JSON representation of the object
+     */
+    default byte[] toBytes(final Object object) {
+        return toString(object).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Converts any JSON string representation to the object
      *
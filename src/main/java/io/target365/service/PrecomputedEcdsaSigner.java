@@ -0,0 +1,223 @@
+package io.target365.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs messages with SHA256withECDSA using nonces which are prepared in advance. The point multiplication k·G does not
+ * depend on the message, so (k<sup>-1</sup>, r) pairs are computed by a background task into a bounded pool, and
+ * signing a message takes only a hash and a few modular operations. The task refills the pool once it is half empty,
+ * and a signer which finds the pool empty computes its nonce itself. Every nonce is taken from the pool exactly once.
+ * Signatures are the same as the ones of {@link EcdsaSigner} and are verified by {@link EcdsaVerifier}
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PrecomputedEcdsaSigner implements Signer {
+
+    /**
+     * Default number of nonces kept in the pool
+     */
+    public static final int DEFAULT_POOL_SIZE = 256;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    private final ECDomainParameters domain;
+    private final BigInteger d;
+    private final int width;
+    private final ECMultiplier multiplier;
+    private final SecureRandom random;
+    private final Executor executor;
+    private final int poolSize;
+    private final Queue<Nonce> pool;
+    private final AtomicInteger pooled;
+    private final AtomicBoolean refilling;
+
+    @Override
+    public String sign(final String message) {
+        final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+
+        return sign(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public String sign(final byte[] message, final int offset, final int length) {
+        final MessageDigest digest = DIGESTS.get();
+        digest.update(message, offset, length);
+
+        final BigInteger e = toInteger(digest.digest());
+        final BigInteger n = domain.getN();
+
+        while (true) {
+            final Nonce nonce = take();
+            final BigInteger s = nonce.kInverse.multiply(e.add(d.multiply(nonce.r))).mod(n);
+
+            if (s.signum() != 0) {
+                final byte[] raw = new byte[2 * width];
+                BigIntegers.asUnsignedByteArray(nonce.r, raw, 0, width);
+                BigIntegers.asUnsignedByteArray(s, raw, width, width);
+
+                return Base64.getEncoder().encodeToString(raw);
+            }
+        }
+    }
+
+    /**
+     * Gets number of nonces in the pool
+     *
+     * @return Number of nonces in the pool
+     */
+    public int getPooled() {
+        return pooled.get();
+    }
+
+    /**
+     * Takes a nonce from the pool or computes a new one if the pool is empty
+     *
+     * @return Nonce, which must not be used again
+     */
+    private Nonce take() {
+        final Nonce nonce = pool.poll();
+
+        if (nonce == null) {
+            refill();
+            return newNonce();
+        }
+
+        if (pooled.decrementAndGet() < poolSize / 2) {
+            refill();
+        }
+
+        return nonce;
+    }
+
+    /**
+     * Starts the background task which fills the pool up, unless it is already running
+     */
+    private void refill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    // Only this task adds nonces, so the pool never grows beyond its size
+                    while (pooled.get() < poolSize) {
+                        final Nonce nonce = newNonce();
+                        pooled.incrementAndGet();
+                        pool.offer(nonce);
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Signing goes on with nonces computed by the signing threads
+            refilling.set(false);
+        }
+    }
+
+    private Nonce newNonce() {
+        final BigInteger n = domain.getN();
+
+        while (true) {
+            final BigInteger k = BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), random);
+            final ECPoint point = multiplier.multiply(domain.getG(), k).normalize();
+            final BigInteger r = point.getAffineXCoord().toBigInteger().mod(n);
+
+            if (r.signum() != 0) {
+                return new Nonce(BigIntegers.modOddInverse(n, k), r);
+            }
+        }
+    }
+
+    /**
+     * Converts the hash to an integer, keeping as many leftmost bits as the order of the curve has
+     */
+    private BigInteger toInteger(final byte[] hash) {
+        final BigInteger e = new BigInteger(1, hash);
+        final int excess = hash.length * 8 - domain.getN().bitLength();
+
+        return excess > 0 ? e.shiftRight(excess) : e;
+    }
+
+    /**
+     * Gets a new signer with {@link #DEFAULT_POOL_SIZE} nonces in the pool
+     *
+     * @param ecPrivateKeyAsString EC private key as a string
+     * @param executor             Executor which runs the background task
+     * @return A signer
+     */
+    public static PrecomputedEcdsaSigner getInstance(final String ecPrivateKeyAsString, final Executor executor) {
+        return getInstance(ecPrivateKeyAsString, DEFAULT_POOL_SIZE, executor);
+    }
+
+    /**
+     * Gets a new signer and starts filling its pool
+     *
+     * @param ecPrivateKeyAsString EC private key as a string
+     * @param poolSize             Number of nonces kept in the pool
+     * @param executor             Executor which runs the background task
+     * @return A signer
+     */
+    public static PrecomputedEcdsaSigner getInstance(final String ecPrivateKeyAsString, final int poolSize, final Executor executor) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be positive");
+        }
+
+        final ECPrivateKeyParameters parameters = EcPrivateKeys.parse(ecPrivateKeyAsString);
+        final ECDomainParameters domain = parameters.getParameters();
+
+        // Comb table of the generator is built once, before the first nonce
+        FixedPointUtil.precompute(domain.getG());
+
+        final PrecomputedEcdsaSigner signer = new PrecomputedEcdsaSigner(domain, parameters.getD(),
+            (domain.getN().bitLength() + 7) / 8, new FixedPointCombMultiplier(), new SecureRandom(), executor, poolSize,
+            new ConcurrentLinkedQueue<>(), new AtomicInteger(), new AtomicBoolean());
+        signer.refill();
+
+        return signer;
+    }
+
+    /**
+     * Inverse of a one-time random k and the x coordinate of k·G modulo the order of the curve
+     */
+    private static final class Nonce {
+
+        private final BigInteger kInverse;
+        private final BigInteger r;
+
+        private Nonce(final BigInteger kInverse, final BigInteger r) {
+            this.kInverse = kInverse;
+            this.r = r;
+        }
+    }
+
+}
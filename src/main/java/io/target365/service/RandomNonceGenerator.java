@@ -0,0 +1,70 @@
+package io.target365.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Generates random (version 4) UUID strings like {@link java.util.UUID#randomUUID()}, but every thread draws from
+ * its own secure random stream, so that signing threads do not contend for the shared {@link SecureRandom} of the UUID class
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RandomNonceGenerator implements NonceGenerator {
+
+    private static final String SECURE_RANDOM_ALGORITHM = "SHA1PRNG";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ThreadLocal<State> states;
+
+    @Override
+    public String next() {
+        final State state = states.get();
+        final byte[] bytes = state.bytes;
+        final char[] chars = state.chars;
+
+        state.random.nextBytes(bytes);
+
+        // Version 4 and IETF variant
+        bytes[6] = (byte) ((bytes[6] & 0x0F) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3F) | 0x80);
+
+        int position = 0;
+
+        for (int i = 0; i < bytes.length; i++) {
+            if (i == 4 || i == 6 || i == 8 || i == 10) {
+                chars[position++] = '-';
+            }
+
+            chars[position++] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[position++] = HEX[bytes[i] & 0x0F];
+        }
+
+        return new String(chars);
+    }
+
+    public static RandomNonceGenerator getInstance() {
+        return new RandomNonceGenerator(ThreadLocal.withInitial(State::new));
+    }
+
+    /**
+     * Secure random stream and buffers owned by a single thread
+     */
+    private static final class State {
+
+        private final SecureRandom random;
+        private final byte[] bytes = new byte[16];
+        private final char[] chars = new char[36];
+
+        private State() {
+            try {
+                // Seeded from the system on first use, after that the stream does not touch any shared state
+                this.random = SecureRandom.getInstance(SECURE_RANDOM_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+}
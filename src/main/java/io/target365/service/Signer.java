@@ -1,5 +1,7 @@
 package io.target365.service;
 
+import java.nio.charset.StandardCharsets;
+
 public interface Signer {
 
     /**
@@ -10,4 +12,16 @@ public interface Signer {
      */
     String sign(final String message);
 
+    /**
+     * Signs UTF-8 encoded message and returns signature string
+     *
+     * @param message Buffer which contains the message to sign
+     * @param offset  Offset of the message in the buffer
+     * @param length  Length of the message
+     * @return Signature string
+     */
+    default String sign(final byte[] message, final int offset, final int length) {
+        return sign(new String(message, offset, length, StandardCharsets.UTF_8));
+    }
+
 }
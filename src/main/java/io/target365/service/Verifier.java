@@ -1,5 +1,7 @@
 package io.target365.service;
 
+import java.nio.charset.StandardCharsets;
+
 public interface Verifier {
 
     /**
@@ -11,4 +13,17 @@ public interface Verifier {
      */
     boolean verify(final String message, final String sign);
 
+    /**
+     * Verifies signature of UTF-8 encoded message
+     *
+     * @param message Buffer which contains the message to verify
+     * @param offset  Offset of the message in the buffer
+     * @param length  Length of the message
+     * @param sign    Signature
+     * @return true or false
+     */
+    default boolean verify(final byte[] message, final int offset, final int length, final String sign) {
+        return verify(new String(message, offset, length, StandardCharsets.UTF_8), sign);
+    }
+
 }
@@ -0,0 +1,166 @@
+package io.target365.transport;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Base of the limiters, which keeps at most {@link #getLimit()} calls in flight, the rest of the calls wait in FIFO order
+ * without occupying any thread. Calls are rejected with {@link RejectedExecutionException} once too many of them wait
+ */
+public abstract class AbstractConcurrencyLimiter implements ConcurrencyLimiter {
+
+    /**
+     * Group of the calls which are started without one
+     */
+    protected static final String DEFAULT_GROUP = "";
+
+    private final int maxQueueSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+    protected AbstractConcurrencyLimiter(final int maxQueueSize) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize must not be negative");
+        }
+
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call) {
+        return execute(DEFAULT_GROUP, call);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(final String group, final Supplier<CompletableFuture<T>> call) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        // Soft bound, concurrent calls could slightly overshoot it
+        if (queued.get() >= maxQueueSize && inFlight.get() >= getLimit()) {
+            future.completeExceptionally(new RejectedExecutionException("Too many calls are waiting for a free slot"));
+            return future;
+        }
+
+        queued.incrementAndGet();
+        queue.add(() -> start(group, call, future));
+        drain();
+
+        return future;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets number of calls which wait for a free slot
+     *
+     * @return Number of waiting calls
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Called once a started call completes, before its slot is released
+     *
+     * @param group     Group of the call
+     * @param start     Start of the call in {@link System#nanoTime()} terms
+     * @param rtt       Round-trip time of the call in nanoseconds
+     * @param throwable Error of the call, <code>null</code> if it succeeded
+     */
+    protected void onComplete(final String group, final long start, final long rtt, final Throwable throwable) {
+    }
+
+    private <T> void start(final String group, final Supplier<CompletableFuture<T>> call, final CompletableFuture<T> future) {
+        // Call was cancelled while it was waiting for a free slot
+        if (future.isDone()) {
+            release();
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final CompletableFuture<T> started;
+
+        try {
+            started = call.get();
+        } catch (Throwable t) {
+            release();
+            future.completeExceptionally(t);
+            return;
+        }
+
+        // Cancellation of the call in flight is passed on to the started call
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                started.cancel(false);
+            }
+        });
+
+        started.whenComplete((result, throwable) -> {
+            onComplete(group, start, System.nanoTime() - start, throwable);
+            release();
+
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(result);
+            }
+        });
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Starts waiting calls while there are free slots. Only one thread drains at a time,
+     * other threads just mark that the queue should be checked again
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        do {
+            while (!queue.isEmpty() && tryAcquire()) {
+                final Runnable task = queue.poll();
+
+                if (task == null) {
+                    inFlight.decrementAndGet();
+                } else {
+                    queued.decrementAndGet();
+                    task.run();
+                }
+            }
+
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+
+            if (current >= getLimit()) {
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+}
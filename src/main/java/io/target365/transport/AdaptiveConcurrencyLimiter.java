@@ -0,0 +1,157 @@
+package io.target365.transport;
+
+import io.target365.exception.CircuitBreakerOpenException;
+import io.target365.exception.InvalidResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Finds the limit of calls in flight with additive increase and multiplicative decrease (AIMD) driven by the observed
+ * round-trip time. While calls complete within {@code rttTolerance} of the baseline round-trip time of their group,
+ * the limit grows by one per limit worth of calls. Once they take longer, fail with a network error or get
+ * a 429 or 5xx response, the limit is multiplied by {@code backoffRatio}, at most once per round trip: calls which
+ * started before the last decrease do not decrease the limit again.
+ * Every group has its own baseline, which is the minimum round-trip time of its calls and slowly follows longer
+ * round-trip times, so that a permanently slower server becomes the new normal
+ */
+public class AdaptiveConcurrencyLimiter extends AbstractConcurrencyLimiter {
+
+    /**
+     * Share of the gap between a longer round-trip time and the baseline which the baseline moves by
+     */
+    private static final double BASELINE_DRIFT = 0.001;
+
+    private final AdaptiveLimitPolicy policy;
+
+    /**
+     * Fractional limit as {@link Double#doubleToLongBits(double)}
+     */
+    private final AtomicLong limit;
+    private final ConcurrentMap<String, AtomicLong> baselineRtts = new ConcurrentHashMap<>();
+
+    /**
+     * Time of the last decrease of the limit in {@link System#nanoTime()} terms
+     */
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimiter(final AdaptiveLimitPolicy policy) {
+        super(policy.getMaxQueueSize());
+
+        if (policy.getMinLimit() < 1 || policy.getMaxLimit() < policy.getMinLimit()) {
+            throw new IllegalArgumentException("minLimit must be positive and not greater than maxLimit");
+        }
+
+        this.policy = policy;
+        this.limit = new AtomicLong(Double.doubleToLongBits(clamp(policy.getInitialLimit())));
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    @Override
+    protected void onComplete(final String group, final long start, final long rtt, final Throwable throwable) {
+        // Neither a cancelled call nor one rejected by an open circuit breaker tells anything about the round-trip time
+        if (isCancelled(throwable) || isRejected(throwable)) {
+            return;
+        }
+
+        final long baseline = updateBaseline(baselineRtts.computeIfAbsent(group, g -> new AtomicLong(Long.MAX_VALUE)), rtt);
+
+        if ((throwable != null && isDropped(throwable)) || rtt > policy.getRttTolerance() * baseline) {
+            decrease(start);
+        } else if (getInFlight() * 2 >= getLimit()) {
+            // Limit grows only while it is actually used, otherwise it would grow without bounds on low traffic
+            updateLimit(current -> current + 1 / current);
+        }
+    }
+
+    /**
+     * Decreases the limit, unless the call started before the last decrease. Such a call was sent under the old limit,
+     * so a burst of slow calls decreases the limit only once
+     *
+     * @param start Start of the call in {@link System#nanoTime()} terms
+     */
+    private void decrease(final long start) {
+        while (true) {
+            final long last = lastDecrease.get();
+
+            if (start - last < 0) {
+                return;
+            }
+
+            if (lastDecrease.compareAndSet(last, System.nanoTime())) {
+                updateLimit(current -> current * policy.getBackoffRatio());
+                return;
+            }
+        }
+    }
+
+    private static long updateBaseline(final AtomicLong baselineRtt, final long rtt) {
+        while (true) {
+            final long current = baselineRtt.get();
+            final long next = rtt < current || current == Long.MAX_VALUE ? rtt : current + (long) ((rtt - current) * BASELINE_DRIFT);
+
+            if (next == current || baselineRtt.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void updateLimit(final DoubleUnaryOperator update) {
+        while (true) {
+            final long current = limit.get();
+            final double next = clamp(update.applyAsDouble(Double.longBitsToDouble(current)));
+
+            if (limit.compareAndSet(current, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private double clamp(final double value) {
+        return Math.max(policy.getMinLimit(), Math.min(policy.getMaxLimit(), value));
+    }
+
+    private static boolean isCancelled(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof CancellationException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isRejected(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof CircuitBreakerOpenException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isDropped(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof InvalidResponseException) {
+                final int code = ((InvalidResponseException) t).getCode();
+                return code == 429 || code >= 500;
+            }
+
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
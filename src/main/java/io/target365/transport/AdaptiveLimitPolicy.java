@@ -0,0 +1,53 @@
+package io.target365.transport;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of an {@link AdaptiveConcurrencyLimiter}
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AdaptiveLimitPolicy {
+
+    /**
+     * Limit to start with
+     */
+    @Builder.Default
+    private final int initialLimit = 20;
+
+    /**
+     * Limit never goes below this value
+     */
+    @Builder.Default
+    private final int minLimit = 1;
+
+    /**
+     * Limit never goes above this value
+     */
+    @Builder.Default
+    private final int maxLimit = 200;
+
+    /**
+     * Factor which the limit is multiplied with on congestion
+     */
+    @Builder.Default
+    private final double backoffRatio = 0.9;
+
+    /**
+     * Round-trip time above this multiple of the baseline round-trip time is congestion
+     */
+    @Builder.Default
+    private final double rttTolerance = 2.0;
+
+    /**
+     * Maximum number of calls which wait for a free slot, the rest are rejected. All calls wait if it is
+     * {@link Integer#MAX_VALUE}
+     */
+    @Builder.Default
+    private final int maxQueueSize = Integer.MAX_VALUE;
+
+}
@@ -0,0 +1,33 @@
+package io.target365.transport;
+
+import io.target365.util.Util;
+import lombok.AllArgsConstructor;
+import okhttp3.Call;
+import okhttp3.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Executes calls with blocking {@link Call#execute()}, so every in-flight call occupies a thread of the executor.
+ * Cancelling the future cancels the call, which releases the thread and the connection
+ */
+@AllArgsConstructor
+public class BlockingTransport implements Transport {
+
+    private final Executor executor;
+
+    @Override
+    public <T> CompletableFuture<T> execute(final Call call, final Function<Response, T> handler) {
+        final CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> handler.apply(Util.wrap(call::execute)), executor);
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+}
@@ -0,0 +1,35 @@
+package io.target365.transport;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a {@link RefreshingCache}. A cached value may be stale by up to {@code refreshAfter} plus one load,
+ * or up to {@code expireAfter} while its refreshes keep failing
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CachePolicy {
+
+    /**
+     * Maximum number of cached values
+     */
+    @Builder.Default
+    private final int maxSize = 1_000;
+
+    /**
+     * Time in milliseconds after which a cached value is reloaded in the background, while it is still returned
+     */
+    @Builder.Default
+    private final long refreshAfter = 60_000;
+
+    /**
+     * Time in milliseconds after which a cached value is no longer returned, e.g. because it could not be refreshed
+     */
+    @Builder.Default
+    private final long expireAfter = 300_000;
+
+}
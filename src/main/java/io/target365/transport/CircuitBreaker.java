@@ -0,0 +1,303 @@
+package io.target365.transport;
+
+import io.target365.exception.CircuitBreakerOpenException;
+import io.target365.exception.InvalidResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fails calls fast with {@link CircuitBreakerOpenException} while the endpoint is unhealthy. The breaker opens once
+ * the rate of failed or slow calls in the sliding window crosses the thresholds of the {@link CircuitBreakerPolicy},
+ * and after a while lets a few trial calls through to decide whether to close again. Network errors and 5xx responses
+ * are failures, other responses and cancelled calls are not. The breaker is lock-free
+ */
+public class CircuitBreaker {
+
+    /**
+     * Number of buckets of the sliding window
+     */
+    private static final int BUCKETS = 10;
+
+    private final String name;
+    private final CircuitBreakerPolicy policy;
+    private final AtomicReference<Phase> phase;
+
+    public CircuitBreaker(final String name, final CircuitBreakerPolicy policy) {
+        this.name = name;
+        this.policy = policy;
+        this.phase = new AtomicReference<>(closed());
+    }
+
+    /**
+     * Starts the call if the breaker lets it through
+     *
+     * @param call Call to start
+     * @param <T>  Type of the call result
+     * @return {@link CompletableFuture} which contains call result or {@link CircuitBreakerOpenException}
+     */
+    public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call) {
+        final Phase permitted = acquire();
+
+        if (permitted == null) {
+            return failed(new CircuitBreakerOpenException(name));
+        }
+
+        final long start = System.nanoTime();
+        final CompletableFuture<T> started;
+
+        try {
+            started = call.get();
+        } catch (Throwable t) {
+            onComplete(permitted, start, t);
+            return failed(t);
+        }
+
+        started.whenComplete((result, throwable) -> onComplete(permitted, start, throwable));
+
+        return started;
+    }
+
+    /**
+     * Gets current state of the breaker
+     *
+     * @return State
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Gets phase which permits a new call
+     *
+     * @return Phase or <code>null</code> if the call is not permitted
+     */
+    private Phase acquire() {
+        while (true) {
+            final Phase current = phase.get();
+
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.since < TimeUnit.MILLISECONDS.toNanos(policy.getOpenDuration())) {
+                        return null;
+                    }
+
+                    phase.compareAndSet(current, halfOpen());
+                    break;
+                default:
+                    return tryDecrement(current.permits) ? current : null;
+            }
+        }
+    }
+
+    private void onComplete(final Phase permitted, final long start, final Throwable throwable) {
+        if (isCancelled(throwable)) {
+            if (permitted.state == State.HALF_OPEN) {
+                permitted.permits.incrementAndGet();
+            }
+
+            return;
+        }
+
+        final boolean failure = throwable != null && isFailure(throwable);
+        final boolean slow = System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallDuration());
+
+        if (permitted.state == State.CLOSED) {
+            permitted.window.record(failure, slow);
+
+            if (permitted.window.isTripped()) {
+                phase.compareAndSet(permitted, open());
+            }
+        } else if (failure || slow) {
+            phase.compareAndSet(permitted, open());
+        } else if (permitted.successes.incrementAndGet() >= policy.getHalfOpenCalls()) {
+            phase.compareAndSet(permitted, closed());
+        }
+    }
+
+    private Phase closed() {
+        return new Phase(State.CLOSED, System.nanoTime(), new Window(), null, null);
+    }
+
+    private Phase open() {
+        return new Phase(State.OPEN, System.nanoTime(), null, null, null);
+    }
+
+    private Phase halfOpen() {
+        return new Phase(State.HALF_OPEN, System.nanoTime(), null,
+                new AtomicInteger(policy.getHalfOpenCalls()), new AtomicInteger());
+    }
+
+    private static boolean tryDecrement(final AtomicInteger permits) {
+        while (true) {
+            final int current = permits.get();
+
+            if (current <= 0) {
+                return false;
+            }
+
+            if (permits.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isCancelled(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof CancellationException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isFailure(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof InvalidResponseException) {
+                return ((InvalidResponseException) t).getCode() >= 500;
+            }
+
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable throwable) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    /**
+     * State of the breaker
+     */
+    public enum State {
+
+        /**
+         * Calls go through and their outcomes are recorded
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected
+         */
+        OPEN,
+
+        /**
+         * A few trial calls go through, the rest are rejected
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Immutable state of the breaker together with the counters which belong to it, so that every transition
+     * starts with fresh counters and outcomes of calls from an earlier phase are ignored
+     */
+    private static final class Phase {
+
+        private final State state;
+        private final long since;
+        private final Window window;
+        private final AtomicInteger permits;
+        private final AtomicInteger successes;
+
+        private Phase(final State state, final long since, final Window window, final AtomicInteger permits, final AtomicInteger successes) {
+            this.state = state;
+            this.since = since;
+            this.window = window;
+            this.permits = permits;
+            this.successes = successes;
+        }
+    }
+
+    /**
+     * Sliding window of call outcomes, split into time buckets which are reused in a ring
+     */
+    private final class Window {
+
+        private final long bucketDuration = Math.max(1, TimeUnit.MILLISECONDS.toNanos(policy.getWindowDuration()) / BUCKETS);
+        private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKETS);
+
+        private void record(final boolean failure, final boolean slow) {
+            final Bucket bucket = bucket(System.nanoTime() / bucketDuration);
+
+            bucket.calls.increment();
+
+            if (failure) {
+                bucket.failures.increment();
+            }
+
+            if (slow) {
+                bucket.slow.increment();
+            }
+        }
+
+        private boolean isTripped() {
+            final long current = System.nanoTime() / bucketDuration;
+            long calls = 0;
+            long failures = 0;
+            long slow = 0;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                final Bucket bucket = buckets.get(i);
+
+                if (bucket != null && current - bucket.index < BUCKETS) {
+                    calls += bucket.calls.sum();
+                    failures += bucket.failures.sum();
+                    slow += bucket.slow.sum();
+                }
+            }
+
+            return calls >= policy.getMinimumCalls() && (failures >= policy.getFailureRateThreshold() * calls
+                    || slow >= policy.getSlowCallRateThreshold() * calls);
+        }
+
+        private Bucket bucket(final long index) {
+            final int slot = (int) Math.floorMod(index, (long) BUCKETS);
+
+            while (true) {
+                final Bucket bucket = buckets.get(slot);
+
+                // Bucket could already be reused by a thread with a later time
+                if (bucket != null && bucket.index >= index) {
+                    return bucket;
+                }
+
+                final Bucket next = new Bucket(index);
+
+                if (buckets.compareAndSet(slot, bucket, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counters of call outcomes within a time bucket
+     */
+    private static final class Bucket {
+
+        private final long index;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+
+        private Bucket(final long index) {
+            this.index = index;
+        }
+    }
+
+}
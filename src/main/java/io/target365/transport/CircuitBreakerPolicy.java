@@ -0,0 +1,58 @@
+package io.target365.transport;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Thresholds of a {@link CircuitBreaker}
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CircuitBreakerPolicy {
+
+    /**
+     * Share of failed calls in the window which opens the breaker
+     */
+    @Builder.Default
+    private final double failureRateThreshold = 0.5;
+
+    /**
+     * Share of slow calls in the window which opens the breaker
+     */
+    @Builder.Default
+    private final double slowCallRateThreshold = 0.5;
+
+    /**
+     * Duration in milliseconds from which a call is slow
+     */
+    @Builder.Default
+    private final long slowCallDuration = 10_000;
+
+    /**
+     * Minimum number of calls in the window before the rates are evaluated
+     */
+    @Builder.Default
+    private final int minimumCalls = 20;
+
+    /**
+     * Duration of the sliding window in milliseconds
+     */
+    @Builder.Default
+    private final long windowDuration = 10_000;
+
+    /**
+     * Time in milliseconds for which the open breaker rejects all calls before it lets trial calls through
+     */
+    @Builder.Default
+    private final long openDuration = 30_000;
+
+    /**
+     * Number of trial calls in the half-open state which all have to succeed to close the breaker
+     */
+    @Builder.Default
+    private final int halfOpenCalls = 3;
+
+}
@@ -0,0 +1,43 @@
+package io.target365.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface ConcurrencyLimiter {
+
+    /**
+     * Starts the call as soon as the limit allows it. Calls over the limit wait for a free slot.
+     * Cancelling the returned future cancels the started call
+     *
+     * @param call Call to start
+     * @param <T>  Type of the call result
+     * @return {@link CompletableFuture} which contains call result
+     */
+    <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call);
+
+    /**
+     * Starts the call of the group as soon as the limit allows it, see {@link #execute(Supplier)}.
+     * Calls of a group, e.g. of an endpoint family, have comparable round-trip times
+     *
+     * @param group Group of the call
+     * @param call  Call to start
+     * @param <T>   Type of the call result
+     * @return {@link CompletableFuture} which contains call result
+     */
+    <T> CompletableFuture<T> execute(final String group, final Supplier<CompletableFuture<T>> call);
+
+    /**
+     * Gets number of calls which are in flight
+     *
+     * @return Number of calls in flight
+     */
+    int getInFlight();
+
+    /**
+     * Gets current limit of calls in flight
+     *
+     * @return Limit of calls in flight
+     */
+    int getLimit();
+
+}
@@ -0,0 +1,26 @@
+package io.target365.transport;
+
+/**
+ * Keeps at most a fixed number of calls in flight, the rest of the calls wait in FIFO order.
+ * Waiting calls do not occupy any thread
+ */
+public class FixedConcurrencyLimiter extends AbstractConcurrencyLimiter {
+
+    private final int limit;
+
+    public FixedConcurrencyLimiter(final int limit) {
+        super(Integer.MAX_VALUE);
+
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.target365.transport;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a {@link Hedger}
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class HedgePolicy {
+
+    /**
+     * Percentile of the recent latencies after which a hedge is sent, greater than 0 and at most 1
+     */
+    @Builder.Default
+    private final double percentile = 0.95;
+
+    /**
+     * Minimum delay in milliseconds before a hedge is sent
+     */
+    @Builder.Default
+    private final long minDelay = 10;
+
+    /**
+     * Number of latencies which have to be recorded before calls are hedged
+     */
+    @Builder.Default
+    private final int minSamples = 20;
+
+    /**
+     * Number of recent latencies the percentile is computed from
+     */
+    @Builder.Default
+    private final int samples = 1_000;
+
+    /**
+     * Maximum number of hedges per call
+     */
+    @Builder.Default
+    private final int maxHedges = 1;
+
+    /**
+     * Budget of hedges, which keeps them from multiplying the load on a slow server
+     */
+    @Builder.Default
+    private final RetryBudget budget = new RetryBudget();
+
+}
@@ -0,0 +1,149 @@
+package io.target365.transport;
+
+import io.target365.util.Threads;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a hedge, i.e. another attempt of the same call, when no response arrives within the configured percentile
+ * of the recent latencies, and takes whichever attempt succeeds first. Other attempts are cancelled. Every attempt
+ * is a new call, so it is signed with its own nonce. Calls are not hedged until enough latencies are recorded.
+ * Latency of a call is the time from its start until it succeeds or fails, whichever attempt completes it, so that slow
+ * and failed calls keep the percentile from drifting low. Only idempotent calls may be hedged
+ */
+public class Hedger {
+
+    private final HedgePolicy policy;
+    private final Executor executor;
+    private final LatencyReservoir latencies;
+
+    public Hedger(final HedgePolicy policy) {
+        this(policy, Threads.defaultExecutor());
+    }
+
+    /**
+     * Creates a new hedger
+     *
+     * @param policy   Settings of the hedger
+     * @param executor Executor which starts the hedges once their delay has passed
+     */
+    public Hedger(final HedgePolicy policy, final Executor executor) {
+        this.policy = policy;
+        this.executor = executor;
+        this.latencies = new LatencyReservoir(policy.getSamples(), policy.getPercentile(), policy.getMinSamples());
+    }
+
+    /**
+     * Starts the call and hedges it if it is slow
+     *
+     * @param call Starts a new attempt of the call
+     * @param <T>  Type of the call result
+     * @return {@link CompletableFuture} which contains result of the first successful attempt or the error of the last one
+     */
+    public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call) {
+        policy.getBudget().onCall();
+
+        final long percentile = latencies.getPercentile();
+        final Execution<T> execution = new Execution<>(call);
+        execution.attempt();
+
+        if (percentile >= 0) {
+            execution.schedule(Math.max(percentile, TimeUnit.MILLISECONDS.toNanos(policy.getMinDelay())), policy.getMaxHedges());
+        }
+
+        return execution.future;
+    }
+
+    /**
+     * Gets delay after which calls are hedged
+     *
+     * @return Delay in nanoseconds, <code>-1</code> if calls are not hedged yet
+     */
+    public long getDelay() {
+        return latencies.getPercentile();
+    }
+
+    /**
+     * Attempts of a single call
+     *
+     * @param <T> Type of the call result
+     */
+    private final class Execution<T> {
+
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Queue<CompletableFuture<T>> attempts = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final long start = System.nanoTime();
+
+        private Execution(final Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+
+            future.whenComplete((result, throwable) -> {
+                // Call cancelled by the caller says nothing about the latency of the server
+                if (!future.isCancelled()) {
+                    latencies.record(System.nanoTime() - start);
+                }
+
+                // Losers and the attempts of a cancelled call are cancelled
+                attempts.forEach(attempt -> attempt.cancel(false));
+            });
+        }
+
+        private void attempt() {
+            inFlight.incrementAndGet();
+
+            final CompletableFuture<T> attempt;
+
+            try {
+                attempt = call.get();
+            } catch (Throwable t) {
+                onFailure(t);
+                return;
+            }
+
+            attempts.add(attempt);
+
+            // Call could be completed before the attempt was published
+            if (future.isDone()) {
+                attempt.cancel(false);
+            }
+
+            attempt.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    future.complete(result);
+                } else {
+                    onFailure(throwable);
+                }
+            });
+        }
+
+        private void onFailure(final Throwable throwable) {
+            // Call fails once none of its attempts could succeed anymore
+            if (inFlight.decrementAndGet() == 0) {
+                future.completeExceptionally(throwable);
+            }
+        }
+
+        private void schedule(final long delay, final int hedges) {
+            if (hedges <= 0) {
+                return;
+            }
+
+            // Hedge signs and starts a new call, which is too much work for the shared scheduler thread
+            Threads.schedule(() -> {
+                if (!future.isDone() && policy.getBudget().tryRetry()) {
+                    attempt();
+                    schedule(delay, hedges - 1);
+                }
+            }, delay, TimeUnit.NANOSECONDS, executor);
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.target365.transport;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free ring of the most recent latencies, which keeps a percentile of them up to date.
+ * The percentile is recomputed by the thread which records every {@link #RECOMPUTE_INTERVAL}th latency,
+ * so reading it is a volatile read only
+ */
+public class LatencyReservoir {
+
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final int minSamples;
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long value = -1;
+
+    /**
+     * @param size       Number of the most recent latencies which are kept
+     * @param percentile Percentile to keep, greater than 0 and at most 1, e.g. <code>0.95</code>
+     * @param minSamples Number of latencies below which the percentile is unknown
+     */
+    public LatencyReservoir(final int size, final double percentile, final int minSamples) {
+        if (size < 1 || percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("size must be positive and percentile must be greater than 0 and at most 1");
+        }
+
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.samples = new AtomicLongArray(size);
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param latency Latency in nanoseconds
+     */
+    public void record(final long latency) {
+        final long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), latency);
+
+        if ((index + 1) % RECOMPUTE_INTERVAL == 0 || index + 1 == minSamples) {
+            recompute(index + 1);
+        }
+    }
+
+    /**
+     * Gets the percentile of the recent latencies
+     *
+     * @return Latency in nanoseconds, <code>-1</code> if not enough latencies are recorded yet
+     */
+    public long getPercentile() {
+        return value;
+    }
+
+    private void recompute(final long recorded) {
+        if (recorded < minSamples) {
+            return;
+        }
+
+        final long[] sorted = new long[(int) Math.min(recorded, samples.length())];
+
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = samples.get(i);
+        }
+
+        Arrays.sort(sorted);
+        value = sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1))];
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.target365.transport;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Executes calls with {@link Call#enqueue(Callback)} and completes the future from the dispatcher callback,
+ * so in-flight calls do not occupy any thread and concurrency is bounded by the {@link okhttp3.Dispatcher} limits only.
+ * Cancelling the future cancels the call, which releases the dispatcher slot and the connection
+ */
+public class NonBlockingTransport implements Transport {
+
+    private final Executor executor;
+
+    /**
+     * Creates a transport which handles responses on the dispatcher threads
+     */
+    public NonBlockingTransport() {
+        this(null);
+    }
+
+    /**
+     * Creates a transport which handles responses on the executor
+     *
+     * @param executor Executor which handles responses, the dispatcher threads if <code>null</code>
+     */
+    public NonBlockingTransport(final Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> execute(final Call call, final Function<Response, T> handler) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(final Call call, final IOException e) {
+                future.completeExceptionally(new RuntimeException(e));
+            }
+
+            @Override
+            public void onResponse(final Call call, final Response response) {
+                if (executor == null) {
+                    handle(response, handler, future);
+                    return;
+                }
+
+                try {
+                    executor.execute(() -> handle(response, handler, future));
+                } catch (RejectedExecutionException e) {
+                    response.close();
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    private static <T> void handle(final Response response, final Function<Response, T> handler, final CompletableFuture<T> future) {
+        try {
+            future.complete(handler.apply(response));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.target365.transport;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a {@link RateLimiter}
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RateLimitPolicy {
+
+    /**
+     * Sustained rate of calls
+     */
+    @Builder.Default
+    private final double permitsPerSecond = 10;
+
+    /**
+     * Number of calls which could be made at once after a quiet period
+     */
+    @Builder.Default
+    private final int burst = 10;
+
+    /**
+     * What happens to calls over the rate
+     */
+    @Builder.Default
+    private final Mode mode = Mode.QUEUE;
+
+    /**
+     * Maximum time in milliseconds a call waits for a permit in {@link Mode#BLOCK} and {@link Mode#QUEUE} modes,
+     * calls which would wait longer are rejected
+     */
+    @Builder.Default
+    private final long maxWait = Long.MAX_VALUE;
+
+    /**
+     * Whether every sender (out-message sender or Strex short number) has its own budget.
+     * Calls without a sender share the budget of the endpoint family
+     */
+    private final boolean perSender;
+
+    /**
+     * What happens to calls over the rate
+     */
+    public enum Mode {
+
+        /**
+         * Calling thread is blocked until a permit is available
+         */
+        BLOCK,
+
+        /**
+         * Call is started once a permit is available, without blocking any thread
+         */
+        QUEUE,
+
+        /**
+         * Call is rejected with {@link io.target365.exception.RateLimitExceededException}
+         */
+        FAIL_FAST
+    }
+
+}
@@ -0,0 +1,170 @@
+package io.target365.transport;
+
+import io.target365.exception.RateLimitExceededException;
+import io.target365.util.Threads;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Smooths calls to the rate of the {@link RateLimitPolicy} with {@link TokenBucket}s, one per sender if the policy
+ * asks for it. Calls over the rate are blocked, queued or rejected with {@link RateLimitExceededException}
+ * depending on {@code mode}. A call which takes more permits than the burst waits until the bucket is full.
+ * Buckets of senders which have been quiet long enough to refill them are dropped
+ */
+public class RateLimiter {
+
+    private static final String NO_SENDER = "";
+
+    /**
+     * Number of buckets above which full buckets are dropped
+     */
+    private static final int SWEEP_SIZE = 1_024;
+
+    private final String name;
+    private final RateLimitPolicy policy;
+    private final Executor executor;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger sweepSize = new AtomicInteger(SWEEP_SIZE);
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public RateLimiter(final String name, final RateLimitPolicy policy) {
+        this(name, policy, Threads.defaultExecutor());
+    }
+
+    /**
+     * Creates a new rate limiter
+     *
+     * @param name     Name of the limiter
+     * @param policy   Settings of the limiter
+     * @param executor Executor which starts queued calls once their permits are available
+     */
+    public RateLimiter(final String name, final RateLimitPolicy policy, final Executor executor) {
+        this.name = name;
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the call once the permits are available
+     *
+     * @param sender  Sender of the call, <code>null</code> if the call has no sender
+     * @param permits Number of permits the call takes, e.g. number of messages in a batch
+     * @param call    Call to start
+     * @param <T>     Type of the call result
+     * @return {@link CompletableFuture} which contains call result or {@link RateLimitExceededException}
+     */
+    public <T> CompletableFuture<T> execute(final String sender, final int permits, final Supplier<CompletableFuture<T>> call) {
+        final String key = policy.isPerSender() && sender != null ? sender : NO_SENDER;
+        final TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(policy.getPermitsPerSecond(), policy.getBurst()));
+
+        if (buckets.size() >= sweepSize.get()) {
+            sweep();
+        }
+
+        final long maxWait = policy.getMode() == RateLimitPolicy.Mode.FAIL_FAST ? 0 : TimeUnit.MILLISECONDS.toNanos(policy.getMaxWait());
+        final long wait = bucket.reserve(permits, maxWait);
+
+        if (wait < 0) {
+            final CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new RateLimitExceededException(name, sender));
+            return future;
+        }
+
+        if (wait == 0) {
+            return call.get();
+        }
+
+        if (policy.getMode() == RateLimitPolicy.Mode.BLOCK) {
+            final long deadline = System.nanoTime() + wait;
+
+            for (long left = wait; left > 0; left = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(left);
+            }
+
+            return call.get();
+        }
+
+        return queue(call, bucket, permits, wait);
+    }
+
+    private <T> CompletableFuture<T> queue(
+            final Supplier<CompletableFuture<T>> call, final TokenBucket bucket, final int permits, final long wait
+    ) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        // Starting the call signs it, which is too much work for the shared scheduler thread
+        final ScheduledFuture<?> scheduled = Threads.schedule(() -> {
+            // Call was cancelled while it was waiting for a permit
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+
+            final CompletableFuture<T> started;
+
+            try {
+                started = call.get();
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+
+            future.whenComplete((result, throwable) -> {
+                if (future.isCancelled()) {
+                    started.cancel(false);
+                }
+            });
+
+            started.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(result);
+                }
+            });
+        }, wait, TimeUnit.NANOSECONDS, executor);
+
+        // Permits of a call which was cancelled before it started are given back to the other calls
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled() && claimed.compareAndSet(false, true)) {
+                scheduled.cancel(false);
+                bucket.release(permits);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Drops full buckets, which are the same as new ones. Next sweep happens once the number of buckets doubles,
+     * so that busy senders do not make every call sweep
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Caller which got a bucket right before it was dropped could take one more burst from it
+        try {
+            buckets.forEach((key, bucket) -> {
+                if (bucket.isFull()) {
+                    buckets.remove(key, bucket);
+                }
+            });
+
+            sweepSize.set(Math.max(SWEEP_SIZE, 2 * buckets.size()));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package io.target365.transport;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of values which are loaded asynchronously. Concurrent callers of a missing key share a single load,
+ * and a value older than {@code refreshAfter} is reloaded in the background while callers keep getting it without waiting.
+ * Values are dropped after {@code expireAfter}, failed loads are not cached. A value is kept when its refresh fails,
+ * unless the failure shows that the value no longer exists. Once the cache is full, the oldest value makes room for a new one
+ *
+ * @param <V> Type of the values
+ */
+public class RefreshingCache<V> {
+
+    private final CachePolicy policy;
+    private final Predicate<Throwable> absent;
+    private final ConcurrentMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public RefreshingCache(final CachePolicy policy) {
+        this(policy, t -> false);
+    }
+
+    /**
+     * Creates a cache which drops a value as soon as its refresh fails because the value no longer exists
+     *
+     * @param policy Cache policy
+     * @param absent Checks whether a failed load means that the value no longer exists, e.g. it was deleted
+     */
+    public RefreshingCache(final CachePolicy policy, final Predicate<Throwable> absent) {
+        this.policy = policy;
+        this.absent = absent;
+    }
+
+    /**
+     * Gets the cached value or loads it
+     *
+     * @param key    Key
+     * @param loader Starts loading the value of the key, if it is missing or due for a refresh
+     * @return {@link CompletableFuture} which contains the value, cancelling it does not cancel the shared load
+     */
+    public CompletableFuture<V> get(final String key, final Supplier<CompletableFuture<V>> loader) {
+        while (true) {
+            final Entry<V> entry = entries.get(key);
+            final long now = System.nanoTime();
+
+            if (entry == null) {
+                final Entry<V> created = new Entry<>(now);
+
+                if (entries.putIfAbsent(key, created) == null) {
+                    return load(key, created, loader);
+                }
+
+                continue;
+            }
+
+            if (!entry.value.isDone()) {
+                return copy(entry.value);
+            }
+
+            if (now - entry.loadedAt >= TimeUnit.MILLISECONDS.toNanos(policy.getExpireAfter())) {
+                final Entry<V> created = new Entry<>(now);
+
+                if (entries.replace(key, entry, created)) {
+                    return load(key, created, loader);
+                }
+
+                continue;
+            }
+
+            if (now - entry.loadedAt >= TimeUnit.MILLISECONDS.toNanos(policy.getRefreshAfter())
+                    && entry.refreshing.compareAndSet(false, true)) {
+                refresh(key, entry, loader);
+            }
+
+            return copy(entry.value);
+        }
+    }
+
+    /**
+     * Gets the cached value without loading it
+     *
+     * @param key Key
+     * @return Value or <code>null</code> if it is not loaded or has expired
+     */
+    public V getIfPresent(final String key) {
+        final Entry<V> entry = entries.get(key);
+
+        if (entry == null || !entry.value.isDone() || entry.value.isCompletedExceptionally()
+                || System.nanoTime() - entry.loadedAt >= TimeUnit.MILLISECONDS.toNanos(policy.getExpireAfter())) {
+            return null;
+        }
+
+        return entry.value.join();
+    }
+
+    /**
+     * Removes the cached value, so that the next call loads it again
+     *
+     * @param key Key
+     */
+    public void invalidate(final String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Gets number of cached values, including the ones being loaded
+     *
+     * @return Number of cached values
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private CompletableFuture<V> load(final String key, final Entry<V> entry, final Supplier<CompletableFuture<V>> loader) {
+        evictIfFull(key);
+
+        final CompletableFuture<V> loaded;
+
+        try {
+            loaded = loader.get();
+        } catch (Throwable t) {
+            entries.remove(key, entry);
+            entry.value.completeExceptionally(t);
+            return copy(entry.value);
+        }
+
+        loaded.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                // Next caller tries again
+                entries.remove(key, entry);
+                entry.value.completeExceptionally(throwable);
+            } else {
+                entry.loadedAt = System.nanoTime();
+                entry.value.complete(value);
+            }
+        });
+
+        return copy(entry.value);
+    }
+
+    private void refresh(final String key, final Entry<V> entry, final Supplier<CompletableFuture<V>> loader) {
+        final CompletableFuture<V> loaded;
+
+        try {
+            loaded = loader.get();
+        } catch (Throwable t) {
+            refreshFailed(key, entry, t);
+            return;
+        }
+
+        loaded.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                refreshFailed(key, entry, throwable);
+            } else {
+                final Entry<V> refreshed = new Entry<>(System.nanoTime());
+                refreshed.value.complete(value);
+                entries.replace(key, entry, refreshed);
+            }
+        });
+    }
+
+    private void refreshFailed(final String key, final Entry<V> entry, final Throwable throwable) {
+        if (absent.test(throwable)) {
+            entries.remove(key, entry);
+        } else {
+            // Current value is kept until it expires, the next caller tries again
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void evictIfFull(final String key) {
+        while (entries.size() > policy.getMaxSize()) {
+            Map.Entry<String, Entry<V>> oldest = null;
+
+            for (final Map.Entry<String, Entry<V>> candidate : entries.entrySet()) {
+                if (!candidate.getKey().equals(key)
+                        && (oldest == null || candidate.getValue().loadedAt - oldest.getValue().loadedAt < 0)) {
+                    oldest = candidate;
+                }
+            }
+
+            if (oldest == null) {
+                return;
+            }
+
+            entries.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private static <V> CompletableFuture<V> copy(final CompletableFuture<V> value) {
+        return value.thenApply(Function.identity());
+    }
+
+    /**
+     * Cached value together with the time it was loaded at
+     *
+     * @param <V> Type of the value
+     */
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long loadedAt;
+
+        private Entry(final long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.target365.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget which allows retries only while they stay below a ratio of all calls, so that retries cannot multiply
+ * the load on the server during an outage. A few retries are allowed up front, so that single failures of
+ * a rarely used client are retried as well. Budget is lock-free and could be shared by many clients
+ */
+public class RetryBudget {
+
+    /**
+     * Default ratio of retries to calls
+     */
+    public static final double DEFAULT_RATIO = 0.1;
+
+    /**
+     * Default maximum number of retries which could be saved up
+     */
+    public static final int DEFAULT_MAX_RETRIES = 10;
+
+    /**
+     * Balance is kept in thousandths of a retry, so that every call could deposit a fraction of a retry
+     */
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget() {
+        this(DEFAULT_RATIO, DEFAULT_MAX_RETRIES);
+    }
+
+    public RetryBudget(final double ratio, final int maxRetries) {
+        if (ratio < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("ratio and maxRetries must not be negative");
+        }
+
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = maxRetries * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Deposits a fraction of a retry for a new call
+     */
+    public void onCall() {
+        while (true) {
+            final long current = balance.get();
+
+            if (current >= maxBalance || balance.compareAndSet(current, Math.min(maxBalance, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Withdraws a retry if the budget allows it
+     *
+     * @return true if the call could be retried, otherwise false
+     */
+    public boolean tryRetry() {
+        while (true) {
+            final long current = balance.get();
+
+            if (current < SCALE) {
+                return false;
+            }
+
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets number of retries which the budget allows right now
+     *
+     * @return Number of retries
+     */
+    public int getAvailableRetries() {
+        return (int) (balance.get() / SCALE);
+    }
+
+}
@@ -0,0 +1,217 @@
+package io.target365.transport;
+
+import com.google.common.collect.ImmutableSet;
+import io.target365.exception.InvalidResponseException;
+import io.target365.util.Threads;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retries failed calls with exponential backoff and full jitter. Only idempotent calls are retried, and only
+ * after network errors or responses with one of the retryable status codes. All retries are limited by the
+ * {@link RetryBudget}, which is shared by all calls of the policy
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RetryPolicy {
+
+    /**
+     * Default maximum number of attempts, including the first one
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Default backoff before the first retry in milliseconds
+     */
+    public static final long DEFAULT_INITIAL_BACKOFF = 100;
+
+    /**
+     * Default maximum backoff in milliseconds
+     */
+    public static final long DEFAULT_MAX_BACKOFF = 5_000;
+
+    /**
+     * Default multiplier of the backoff after every attempt
+     */
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+
+    /**
+     * Maximum number of attempts, including the first one
+     */
+    @Builder.Default
+    private final int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * Backoff before the first retry in milliseconds. Actual backoff is a random value up to the computed one
+     */
+    @Builder.Default
+    private final long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+
+    /**
+     * Maximum backoff in milliseconds
+     */
+    @Builder.Default
+    private final long maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    /**
+     * Multiplier of the backoff after every attempt
+     */
+    @Builder.Default
+    private final double multiplier = DEFAULT_MULTIPLIER;
+
+    /**
+     * Response status codes which are retried
+     */
+    @Builder.Default
+    private final Set<Integer> retryableCodes = ImmutableSet.of(408, 429, 502, 503, 504);
+
+    /**
+     * Budget of retries
+     */
+    @Builder.Default
+    private final RetryBudget budget = new RetryBudget();
+
+    /**
+     * Starts the call and retries it on {@link Threads#defaultExecutor()}, see {@link #execute(Supplier, boolean, Executor)}
+     *
+     * @param call       Starts a new attempt of the call
+     * @param idempotent Whether the call could be safely repeated
+     * @param <T>        Type of the call result
+     * @return {@link CompletableFuture} which contains call result or the error of the last attempt
+     */
+    public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call, final boolean idempotent) {
+        return execute(call, idempotent, Threads.defaultExecutor());
+    }
+
+    /**
+     * Starts the call and retries it while it fails with a retryable error, attempts are left and the budget allows it.
+     * Every attempt is a new call. Cancelling the returned future cancels the current attempt and stops retries
+     *
+     * @param call       Starts a new attempt of the call
+     * @param idempotent Whether the call could be safely repeated
+     * @param executor   Executor which starts the retries once their backoff has passed
+     * @param <T>        Type of the call result
+     * @return {@link CompletableFuture} which contains call result or the error of the last attempt
+     */
+    public <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call, final boolean idempotent, final Executor executor) {
+        budget.onCall();
+
+        if (!idempotent || maxAttempts <= 1) {
+            return call.get();
+        }
+
+        final Execution<T> execution = new Execution<>(call, executor);
+        execution.attempt(1);
+
+        return execution.future;
+    }
+
+    /**
+     * Checks whether the error of an attempt is transient
+     *
+     * @param throwable Error of the attempt
+     * @return true if the call could be retried, otherwise false
+     */
+    boolean isRetryable(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof InvalidResponseException) {
+                return retryableCodes.contains(((InvalidResponseException) t).getCode());
+            }
+
+            // Call was cancelled or its deadline has passed, unlike socket timeouts there is no point to try again
+            if (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException)) {
+                return false;
+            }
+
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets backoff before the given retry with full jitter
+     *
+     * @param retry Number of the retry, starting from 1
+     * @return Backoff in milliseconds
+     */
+    long backoff(final int retry) {
+        final long ceiling = (long) Math.min(maxBackoff, initialBackoff * Math.pow(multiplier, retry - 1));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Attempts of a single call
+     *
+     * @param <T> Type of the call result
+     */
+    private final class Execution<T> {
+
+        private final Supplier<CompletableFuture<T>> call;
+        private final Executor executor;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile CompletableFuture<T> current;
+
+        private Execution(final Supplier<CompletableFuture<T>> call, final Executor executor) {
+            this.call = call;
+            this.executor = executor;
+
+            future.whenComplete((result, throwable) -> {
+                final CompletableFuture<T> attempt = current;
+
+                if (future.isCancelled() && attempt != null) {
+                    attempt.cancel(false);
+                }
+            });
+        }
+
+        private void attempt(final int number) {
+            if (future.isDone()) {
+                return;
+            }
+
+            final CompletableFuture<T> attempt;
+
+            try {
+                attempt = call.get();
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+
+            current = attempt;
+
+            // Returned future could be cancelled before the attempt was published
+            if (future.isCancelled()) {
+                attempt.cancel(false);
+            }
+
+            attempt.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    future.complete(result);
+                } else if (number < maxAttempts && !future.isDone() && isRetryable(throwable) && budget.tryRetry()) {
+                    // Retry signs and starts a new call, which is too much work for the shared scheduler thread
+                    Threads.schedule(() -> attempt(number + 1), backoff(number), TimeUnit.MILLISECONDS, executor);
+                } else {
+                    future.completeExceptionally(throwable);
+                }
+            });
+        }
+    }
+
+}
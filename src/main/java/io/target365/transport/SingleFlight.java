@@ -0,0 +1,152 @@
+package io.target365.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into a single call, so that all callers share its result.
+ * Every caller gets its own future, and the shared call is cancelled only once all of its callers cancelled.
+ * Calls with the same key must produce results of the same type
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Joins the call in flight with the same key or starts a new one
+     *
+     * @param key  Key of the call
+     * @param call Starts the call
+     * @param <T>  Type of the call result
+     * @return {@link CompletableFuture} which contains the shared call result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(final String key, final Supplier<CompletableFuture<T>> call) {
+        while (true) {
+            final Flight<T> flight = (Flight<T>) flights.get(key);
+
+            if (flight != null) {
+                final CompletableFuture<T> joined = flight.join();
+
+                if (joined != null) {
+                    return joined;
+                }
+
+                // Every caller of the flight has cancelled, so it is about to be removed
+                flights.remove(key, flight);
+                continue;
+            }
+
+            final Flight<T> created = new Flight<>(key);
+
+            if (flights.putIfAbsent(key, created) == null) {
+                final CompletableFuture<T> joined = created.join();
+                created.start(call);
+                return joined;
+            }
+        }
+    }
+
+    /**
+     * Gets number of calls in flight
+     *
+     * @return Number of calls in flight
+     */
+    public int getInFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Shared call and its callers
+     *
+     * @param <T> Type of the call result
+     */
+    private final class Flight<T> {
+
+        private final String key;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger callers = new AtomicInteger();
+
+        private Flight(final String key) {
+            this.key = key;
+        }
+
+        /**
+         * Adds a caller to the flight
+         *
+         * @return Future of the caller or <code>null</code> if all callers of the flight have cancelled
+         */
+        private CompletableFuture<T> join() {
+            while (true) {
+                final int current = callers.get();
+
+                if (current < 0) {
+                    return null;
+                }
+
+                if (callers.compareAndSet(current, current + 1)) {
+                    break;
+                }
+            }
+
+            final CompletableFuture<T> joined = new CompletableFuture<>();
+
+            result.whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    joined.completeExceptionally(throwable);
+                } else {
+                    joined.complete(value);
+                }
+            });
+
+            joined.whenComplete((value, throwable) -> {
+                if (joined.isCancelled()) {
+                    leave();
+                }
+            });
+
+            return joined;
+        }
+
+        private void leave() {
+            // Last caller marks the flight as abandoned, so that nobody else joins it
+            if (callers.decrementAndGet() == 0 && callers.compareAndSet(0, -1)) {
+                flights.remove(key, this);
+                result.cancel(false);
+            }
+        }
+
+        private void start(final Supplier<CompletableFuture<T>> call) {
+            final CompletableFuture<T> started;
+
+            try {
+                started = call.get();
+            } catch (Throwable t) {
+                flights.remove(key, this);
+                result.completeExceptionally(t);
+                return;
+            }
+
+            result.whenComplete((value, throwable) -> {
+                if (result.isCancelled()) {
+                    started.cancel(false);
+                }
+            });
+
+            started.whenComplete((value, throwable) -> {
+                // Callers which come after the result is known start a new call
+                flights.remove(key, this);
+
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.target365.transport;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of the number of tokens it keeps the time at which the bucket will be full again
+ * (generic cell rate algorithm), so that taking tokens and refilling the bucket is a single compare-and-set.
+ * More tokens than the capacity are taken at once when the bucket is full, and later takers wait until they are paid off
+ */
+public class TokenBucket {
+
+    private final long interval;
+    private final int burst;
+    private final long tolerance;
+
+    /**
+     * Time in {@link System#nanoTime()} terms at which all tokens taken so far are paid off
+     */
+    private final AtomicLong paidOff;
+
+    /**
+     * Creates a full bucket
+     *
+     * @param permitsPerSecond Rate at which the bucket is refilled
+     * @param burst            Capacity of the bucket
+     */
+    public TokenBucket(final double permitsPerSecond, final int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+
+        this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst;
+        this.tolerance = interval * burst;
+        this.paidOff = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes the tokens if they are available right now
+     *
+     * @param permits Number of tokens
+     * @return true if the tokens were taken, otherwise false
+     */
+    public boolean tryAcquire(final int permits) {
+        return reserve(permits, 0) == 0;
+    }
+
+    /**
+     * Takes the tokens in advance if they become available within the given time. More tokens than the capacity
+     * become available once the bucket is full, otherwise they would never be available
+     *
+     * @param permits Number of tokens
+     * @param maxWait Maximum time to wait for the tokens in nanoseconds
+     * @return Time in nanoseconds after which the tokens could be used, or <code>-1</code> if the tokens were not taken
+     */
+    public long reserve(final int permits, final long maxWait) {
+        while (true) {
+            final long now = System.nanoTime();
+            final long current = paidOff.get();
+            final long start = Math.max(current, now);
+            final long wait = Math.max(0, start + interval * Math.min(permits, burst) - tolerance - now);
+
+            if (wait > maxWait) {
+                return -1;
+            }
+
+            if (paidOff.compareAndSet(current, start + interval * permits)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Gives back tokens which were taken but not used, e.g. by a call which was cancelled while it was waiting
+     *
+     * @param permits Number of tokens
+     */
+    public void release(final int permits) {
+        paidOff.addAndGet(-interval * permits);
+    }
+
+    /**
+     * Checks whether the bucket is full, so that it could be replaced by a new bucket
+     *
+     * @return true if all tokens taken so far are paid off, otherwise false
+     */
+    public boolean isFull() {
+        return paidOff.get() - System.nanoTime() <= 0;
+    }
+
+}
@@ -0,0 +1,22 @@
+package io.target365.transport;
+
+import okhttp3.Call;
+import okhttp3.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public interface Transport {
+
+    /**
+     * Executes the call and applies the handler to the response on the same thread which received the response,
+     * so handling, parsing and mapping of the response do not need any further executor hand-offs
+     *
+     * @param call    Call to execute
+     * @param handler Handler of the response
+     * @param <T>     Type of the handler result
+     * @return {@link CompletableFuture} which contains handler result
+     */
+    <T> CompletableFuture<T> execute(final Call call, final Function<Response, T> handler);
+
+}
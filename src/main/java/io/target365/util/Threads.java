@@ -0,0 +1,99 @@
+package io.target365.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@UtilityClass
+public final class Threads {
+
+    private static final String THREAD_NAME_FORMAT = "target365-sdk-%d";
+    private static final String SCHEDULER_THREAD_NAME_FORMAT = "target365-sdk-scheduler-%d";
+
+    /**
+     * Gets executor which is used by clients without an executor configured.
+     * It is shared by all such clients and keeps SDK work away from {@link java.util.concurrent.ForkJoinPool#commonPool()}
+     *
+     * @return Default executor
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Gets scheduler which is shared by all clients for delayed work such as retry backoff.
+     * Scheduled tasks must be short and hand any longer work over to an executor
+     *
+     * @return Shared scheduler
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.INSTANCE;
+    }
+
+    /**
+     * Runs the task on the executor after the delay. The shared scheduler only hands the task over, so that long tasks
+     * of one client do not delay the scheduled work of all other clients
+     *
+     * @param task     Task
+     * @param delay    Delay
+     * @param unit     Unit of the delay
+     * @param executor Executor which runs the task
+     * @return Scheduled hand-over of the task
+     */
+    public static ScheduledFuture<?> schedule(final Runnable task, final long delay, final TimeUnit unit, final Executor executor) {
+        return scheduler().schedule(() -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Task must run anyway, otherwise the caller waiting for it would never complete
+                task.run();
+            }
+        }, delay, unit);
+    }
+
+    /**
+     * Checks whether {@link #newVirtualThreadPerTaskExecutor()} is supported by the running JVM
+     *
+     * @return true on Java 21 or later, otherwise false
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Creates executor which starts a new virtual thread for each task. Blocking calls executed by such an executor
+     * do not occupy any platform thread, so it could be used as {@code Target365Client.Parameters#executor}
+     * instead of sizing a pool. Supported on Java 21 or later only, where the multi-release jar provides the implementation
+     *
+     * @return Executor which starts a new virtual thread for each task
+     * @throws UnsupportedOperationException if virtual threads are not supported by the running JVM
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor();
+    }
+
+    /**
+     * Lazily initialized holder of the default executor
+     */
+    private static final class DefaultExecutorHolder {
+
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+    }
+
+    /**
+     * Lazily initialized holder of the scheduler
+     */
+    private static final class SchedulerHolder {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat(SCHEDULER_THREAD_NAME_FORMAT).setDaemon(true).build());
+    }
+}
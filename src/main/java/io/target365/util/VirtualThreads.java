@@ -0,0 +1,21 @@
+package io.target365.util;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual thread support of {@link Threads}. The multi-release jar replaces this class with its Java 21 version
+ * from src/main/java21, so only this class has to be kept in two versions
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor() {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+}
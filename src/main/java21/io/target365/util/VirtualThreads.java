@@ -0,0 +1,24 @@
+package io.target365.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Java 21 version of {@link VirtualThreads}, which is packaged into META-INF/versions/21 of the multi-release jar.
+ * It must keep the same API as the Java 8 version
+ */
+final class VirtualThreads {
+
+    private static final String VIRTUAL_THREAD_NAME_PREFIX = "target365-sdk-virtual-";
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(VIRTUAL_THREAD_NAME_PREFIX, 0).factory());
+    }
+}
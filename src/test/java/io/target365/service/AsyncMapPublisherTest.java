@@ -0,0 +1,162 @@
+package io.target365.service;
+
+import io.target365.reactive.AsyncMapPublisher;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class AsyncMapPublisherTest {
+
+    @Test
+    public void test() {
+        final List<CompletableFuture<String>> calls = new ArrayList<>();
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new AsyncMapPublisher<Integer, String>(new RangePublisher(10), i -> {
+            final CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }, 3).subscribe(subscriber);
+
+        // At most three calls are in flight, even without downstream demand
+        assertThat(calls).hasSize(3);
+
+        // Completed results wait for downstream demand and keep their slots occupied
+        calls.get(1).complete("1");
+        assertThat(subscriber.results).isEmpty();
+        assertThat(calls).hasSize(3);
+
+        subscriber.subscription.request(1);
+        assertThat(subscriber.results).containsExactly("1");
+        assertThat(calls).hasSize(4);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        for (int i = 0; i < calls.size(); i++) {
+            calls.get(i).complete(String.valueOf(i));
+        }
+
+        assertThat(calls).hasSize(10);
+        assertThat(subscriber.results).hasSize(10).doesNotHaveDuplicates();
+        assertThat(subscriber.completed).isTrue();
+        assertThat(subscriber.error.get()).isNull();
+    }
+
+    @Test
+    public void maxConcurrency() {
+        // Invalid settings are rejected when the publisher is created, subscribe must not throw
+        assertThat(catchThrowable(() -> new AsyncMapPublisher<Integer, String>(new RangePublisher(1),
+                i -> CompletableFuture.completedFuture(String.valueOf(i)), 0))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void error() {
+        final List<CompletableFuture<String>> calls = new ArrayList<>();
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new AsyncMapPublisher<Integer, String>(new RangePublisher(10), i -> {
+            final CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }, 2).subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        calls.get(0).completeExceptionally(new IllegalStateException("failed"));
+
+        // Stream is terminated and the other call in flight is cancelled
+        assertThat(subscriber.error.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(subscriber.completed).isFalse();
+        assertThat(calls.get(1).isCancelled()).isTrue();
+        assertThat(calls).hasSize(2);
+    }
+
+    /**
+     * Synchronous publisher of integers from 0 until count, which respects demand
+     */
+    private static final class RangePublisher implements Publisher<Integer> {
+
+        private final int count;
+
+        private RangePublisher(final int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(final Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                private int next;
+                private long requested;
+                private boolean emitting;
+                private boolean cancelled;
+
+                @Override
+                public void request(final long n) {
+                    requested += n;
+
+                    if (emitting) {
+                        return;
+                    }
+
+                    emitting = true;
+
+                    while (requested > 0 && next < count && !cancelled) {
+                        requested--;
+                        subscriber.onNext(next++);
+                    }
+
+                    if (next == count && !cancelled) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+
+                    emitting = false;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<String> {
+
+        private final List<String> results = new ArrayList<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private Subscription subscription;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final String result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
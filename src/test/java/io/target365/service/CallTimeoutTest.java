@@ -0,0 +1,104 @@
+package io.target365.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.target365.client.Target365Client;
+import io.target365.util.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class CallTimeoutTest extends ClientTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Target365Client client;
+
+    @Before
+    public void before() throws Exception {
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        // Every ping is answered only once the test releases it
+        server.createContext("/api/ping", exchange -> {
+            hits.incrementAndGet();
+            Util.suppress(() -> release.await(5, TimeUnit.SECONDS));
+
+            final byte[] bytes = "\"pong\"".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        this.client = Target365Client.getInstance(getPrivateKeyAsString(), Target365Client.Parameters.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/").keyName("TestKey").maxInFlightRequests(1).build());
+    }
+
+    @After
+    public void after() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void deadline() {
+        final long start = System.nanoTime();
+        final Throwable throwable = catchThrowable(() -> client.withCallTimeout(200, TimeUnit.MILLISECONDS).getPing().get(5, TimeUnit.SECONDS));
+
+        // Slow response fails the call once its deadline has passed
+        assertThat(throwable).isInstanceOf(ExecutionException.class);
+        assertThat(isTimeout(throwable)).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(3));
+    }
+
+    @Test
+    public void deadlinePassedWhileWaiting() throws Exception {
+        final CompletableFuture<String> first = client.getPing();
+        final CompletableFuture<String> second = client.withCallTimeout(100, TimeUnit.MILLISECONDS).getPing();
+
+        // Second call waits for the slot of the first one until its deadline has passed
+        Thread.sleep(300);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("\"pong\"");
+        assertThat(isTimeout(catchThrowable(() -> second.get(5, TimeUnit.SECONDS)))).isTrue();
+
+        // Call whose deadline has passed is never sent
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    private static boolean isTimeout(final Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+package io.target365.service;
+
+import io.target365.client.EndpointFamily;
+import io.target365.exception.CircuitBreakerOpenException;
+import io.target365.exception.InvalidResponseException;
+import io.target365.transport.CircuitBreaker;
+import io.target365.transport.CircuitBreakerPolicy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class CircuitBreakerTest {
+
+    private final CircuitBreakerPolicy policy = CircuitBreakerPolicy.builder()
+            .minimumCalls(4).failureRateThreshold(0.5).openDuration(50).halfOpenCalls(2).build();
+
+    @Test
+    public void test() throws Exception {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("strex", policy);
+
+        // Client errors do not count as failures
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> failed(new InvalidResponseException(400, "", "")));
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> failed(new IOException("timeout")));
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        final Throwable throwable = catchThrowable(() -> circuitBreaker.execute(() -> completed("ok")).get());
+        assertThat(throwable).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(CircuitBreakerOpenException.class);
+
+        Thread.sleep(100);
+
+        // Only the trial calls go through, and the breaker closes once they all succeed
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        circuitBreaker.execute(() -> first);
+        circuitBreaker.execute(() -> second);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(catchThrowable(() -> circuitBreaker.execute(() -> completed("ok")).get()))
+                .hasCauseInstanceOf(CircuitBreakerOpenException.class);
+
+        first.complete("ok");
+        second.complete("ok");
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.execute(() -> completed("ok")).get()).isEqualTo("ok");
+    }
+
+    @Test
+    public void halfOpenFailure() throws Exception {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker("lookup", policy);
+
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> failed(new InvalidResponseException(503, "", "")));
+        }
+
+        Thread.sleep(100);
+        circuitBreaker.execute(() -> failed(new IOException("Connection reset")));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void endpointFamily() {
+        assertThat(EndpointFamily.of("api/strex/transactions")).isEqualTo(EndpointFamily.STREX);
+        assertThat(EndpointFamily.of("api/one-click/configs/1")).isEqualTo(EndpointFamily.STREX);
+        assertThat(EndpointFamily.of("api/out-messages/batch")).isEqualTo(EndpointFamily.OUT_MESSAGES);
+        assertThat(EndpointFamily.of("api/lookup/freetext")).isEqualTo(EndpointFamily.LOOKUP);
+        assertThat(EndpointFamily.of("api/public-key/key")).isEqualTo(EndpointFamily.PUBLIC_KEYS);
+        assertThat(EndpointFamily.of("api/ping")).isEqualTo(EndpointFamily.OTHER);
+    }
+
+    private static CompletableFuture<String> completed(final String result) {
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static CompletableFuture<String> failed(final Throwable throwable) {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        future.completeExceptionally(new RuntimeException(throwable));
+        return future;
+    }
+}
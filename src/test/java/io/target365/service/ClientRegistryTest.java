@@ -0,0 +1,68 @@
+package io.target365.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.target365.client.Target365Client;
+import io.target365.client.Target365ClientRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class ClientRegistryTest extends ClientTest {
+
+    @Test
+    public void test() throws Exception {
+        final Target365ClientRegistry registry = Target365ClientRegistry.getInstance(
+                Target365Client.Parameters.builder().baseUrl("http://localhost/").build());
+        final Target365Client client = registry.getClient("a", getPrivateKeyAsString());
+
+        assertThat(registry.getClient("a", getPrivateKeyAsString())).isSameAs(client);
+        assertThat(registry.findClient("a")).contains(client);
+        assertThat(registry.findClient("b")).isEmpty();
+
+        // Client created with another key is never handed out silently
+        assertThat(catchThrowable(() -> registry.getClient("a", "another key"))).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(registry.removeClient("a")).contains(client);
+        assertThat(registry.getClient("a", getPrivateKeyAsString())).isNotSameAs(client);
+
+        registry.close();
+    }
+
+    @Test
+    public void suppliedOkHttpClient() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            final String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            final OkHttpClient okHttpClient = new OkHttpClient();
+
+            try (Response response = okHttpClient.newCall(new Request.Builder().url(baseUrl).build()).execute()) {
+                assertThat(response.code()).isEqualTo(200);
+            }
+
+            assertThat(okHttpClient.connectionPool().connectionCount()).isEqualTo(1);
+
+            Target365ClientRegistry.getInstance(Target365Client.Parameters.builder().baseUrl(baseUrl).okHttpClient(okHttpClient).build())
+                    .close();
+
+            // Connections of an OkHttp client which the registry does not own are left alone
+            assertThat(okHttpClient.connectionPool().connectionCount()).isEqualTo(1);
+        } finally {
+            server.stop(0);
+        }
+    }
+}
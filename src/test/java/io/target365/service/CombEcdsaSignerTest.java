@@ -0,0 +1,57 @@
+package io.target365.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class CombEcdsaSignerTest extends ClientTest {
+
+    private Signer signer;
+    private Verifier verifier;
+
+    @Before
+    public void before() throws Exception {
+        this.signer = CombEcdsaSigner.getInstance(getPrivateKeyAsString());
+        this.verifier = EcdsaVerifier.getInstance(getPublicKeyAsString());
+    }
+
+    @Test
+    public void test() {
+        final String message = "Test Message";
+        final String sign = signer.sign(message);
+
+        assertThat(verifier.verify(message, sign)).isTrue();
+        assertThat(signer.sign(message)).isEqualTo(sign);
+        assertThat(signer.sign("Other Message")).isNotEqualTo(sign);
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Callable<Boolean>> tasks = IntStream.range(0, 200).mapToObj(i -> (Callable<Boolean>) () -> {
+                final String message = "Test Message " + i;
+                return verifier.verify(message, signer.sign(message));
+            }).collect(Collectors.toList());
+
+            for (final Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
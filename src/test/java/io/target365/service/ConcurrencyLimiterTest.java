@@ -0,0 +1,148 @@
+package io.target365.service;
+
+import io.target365.transport.AdaptiveConcurrencyLimiter;
+import io.target365.transport.AdaptiveLimitPolicy;
+import io.target365.transport.ConcurrencyLimiter;
+import io.target365.transport.FixedConcurrencyLimiter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void fixed() throws Exception {
+        final ConcurrencyLimiter limiter = new FixedConcurrencyLimiter(2);
+        final List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            results.add(limiter.execute(() -> {
+                final CompletableFuture<Integer> call = new CompletableFuture<>();
+                calls.add(call);
+                return call;
+            }));
+        }
+
+        // Only two calls are started, the rest are waiting
+        assertThat(calls).hasSize(2);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        // Cancelled call is skipped once a slot is free
+        results.get(2).cancel(false);
+        calls.get(0).complete(0);
+        assertThat(results.get(0).get()).isEqualTo(0);
+        assertThat(calls).hasSize(3);
+
+        calls.get(1).complete(1);
+        calls.get(2).completeExceptionally(new IllegalStateException());
+        assertThat(results.get(3).isCompletedExceptionally()).isTrue();
+        assertThat(calls).hasSize(4);
+
+        calls.get(3).complete(4);
+        assertThat(results.get(4).get()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void cancel() {
+        final ConcurrencyLimiter limiter = new FixedConcurrencyLimiter(1);
+        final CompletableFuture<Integer> call = new CompletableFuture<>();
+
+        final CompletableFuture<Integer> result = limiter.execute(() -> call);
+        result.cancel(false);
+
+        // Cancellation reaches the started call and frees its slot
+        assertThat(call.isCancelled()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void adaptive() {
+        final ConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(AdaptiveLimitPolicy.builder()
+                .initialLimit(4).maxLimit(10).rttTolerance(1_000).build());
+
+        // Limit grows while it is used and calls are fast
+        for (int round = 0; round < 50; round++) {
+            final List<CompletableFuture<Integer>> calls = new ArrayList<>();
+
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                final CompletableFuture<Integer> call = new CompletableFuture<>();
+                calls.add(call);
+                limiter.execute(() -> call);
+            }
+
+            calls.forEach(call -> call.complete(0));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        // Limit shrinks once calls fail
+        for (int i = 0; i < 10; i++) {
+            final CompletableFuture<Integer> call = new CompletableFuture<>();
+            call.completeExceptionally(new RuntimeException(new IOException("timeout")));
+            limiter.execute(() -> call);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void burst() {
+        final ConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(AdaptiveLimitPolicy.builder()
+                .initialLimit(10).maxLimit(10).build());
+        final List<CompletableFuture<Integer>> calls = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            final CompletableFuture<Integer> call = new CompletableFuture<>();
+            calls.add(call);
+            limiter.execute(() -> call);
+        }
+
+        // Calls in flight were all sent under the old limit, so their failures decrease the limit only once
+        calls.forEach(call -> call.completeExceptionally(new RuntimeException(new IOException("timeout"))));
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    public void groups() throws Exception {
+        final ConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(AdaptiveLimitPolicy.builder()
+                .initialLimit(4).maxLimit(4).build());
+
+        limiter.execute("ping", () -> CompletableFuture.completedFuture(0));
+
+        // Slow family is measured against its own baseline, not against the fast one
+        for (int i = 0; i < 3; i++) {
+            final CompletableFuture<Integer> call = new CompletableFuture<>();
+            limiter.execute("export", () -> call);
+            Thread.sleep(20);
+            call.complete(0);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void reject() {
+        final ConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(AdaptiveLimitPolicy.builder()
+                .initialLimit(1).maxLimit(1).maxQueueSize(1).build());
+
+        limiter.execute(CompletableFuture::new);
+        limiter.execute(CompletableFuture::new);
+
+        assertThat(catchThrowable(() -> limiter.execute(CompletableFuture::new).get()))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+}
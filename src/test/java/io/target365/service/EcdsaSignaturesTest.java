@@ -0,0 +1,65 @@
+package io.target365.service;
+
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.DERSequence;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnit4.class)
+public class EcdsaSignaturesTest {
+
+    private static final int WIDTH = 32;
+
+    @Test
+    public void roundTrip() throws Exception {
+        final Random random = new Random(365);
+
+        for (int i = 0; i < 1000; i++) {
+            final byte[] raw = new byte[2 * WIDTH];
+            random.nextBytes(raw);
+
+            // Short values and values with the high bit set need different DER lengths
+            Arrays.fill(raw, 0, random.nextInt(WIDTH), (byte) 0);
+            Arrays.fill(raw, WIDTH, WIDTH + random.nextInt(3), (byte) 0);
+
+            final byte[] expected = der(raw);
+            final byte[] der = new byte[EcdsaSignatures.maxDerLength(WIDTH)];
+            final int length = EcdsaSignatures.toDer(raw, WIDTH, der);
+
+            assertThat(Arrays.copyOf(der, length)).isEqualTo(expected);
+
+            final byte[] decoded = new byte[2 * WIDTH];
+            EcdsaSignatures.toRaw(expected, WIDTH, decoded);
+
+            assertThat(decoded).isEqualTo(raw);
+        }
+    }
+
+    @Test
+    public void invalid() {
+        assertThatThrownBy(() -> EcdsaSignatures.toRaw(new byte[]{0x30, 0x00}, WIDTH, new byte[2 * WIDTH]))
+            .isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> EcdsaSignatures.toRaw(new byte[]{0x31, 0x06, 0x02, 0x01, 0x01, 0x02, 0x01, 0x01}, WIDTH, new byte[2 * WIDTH]))
+            .isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> EcdsaSignatures.toRaw(new byte[]{0x30, 0x07, 0x02, 0x01, 0x01, 0x02, 0x01, 0x01}, WIDTH, new byte[2 * WIDTH]))
+            .isInstanceOf(SignatureException.class);
+    }
+
+    private static byte[] der(final byte[] raw) throws Exception {
+        final ASN1EncodableVector vector = new ASN1EncodableVector();
+        vector.add(new ASN1Integer(new BigInteger(1, Arrays.copyOfRange(raw, 0, WIDTH))));
+        vector.add(new ASN1Integer(new BigInteger(1, Arrays.copyOfRange(raw, WIDTH, 2 * WIDTH))));
+
+        return new DERSequence(vector).getEncoded();
+    }
+}
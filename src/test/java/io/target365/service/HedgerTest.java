@@ -0,0 +1,87 @@
+package io.target365.service;
+
+import io.target365.transport.HedgePolicy;
+import io.target365.transport.Hedger;
+import io.target365.transport.LatencyReservoir;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class HedgerTest {
+
+    @Test
+    public void test() throws Exception {
+        final Hedger hedger = new Hedger(HedgePolicy.builder().minSamples(5).minDelay(20).build());
+
+        // Calls are not hedged until enough latencies are recorded
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(() -> CompletableFuture.completedFuture("ok"));
+        }
+
+        assertThat(hedger.getDelay()).isNotNegative();
+
+        final List<CompletableFuture<String>> attempts = new ArrayList<>();
+        final CompletableFuture<String> result = hedger.execute(() -> {
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempts.add(attempt);
+            return attempt;
+        });
+
+        Thread.sleep(200);
+
+        // Slow call is hedged once, the hedge wins and the first attempt is cancelled
+        assertThat(attempts).hasSize(2);
+        attempts.get(1).complete("hedge");
+
+        assertThat(result.get()).isEqualTo("hedge");
+        assertThat(attempts.get(0).isCancelled()).isTrue();
+    }
+
+    @Test
+    public void latencies() throws Exception {
+        final Hedger hedger = new Hedger(HedgePolicy.builder().minSamples(5).minDelay(0).build());
+
+        // Failed and slow calls are recorded from their start, so the delay does not drift low
+        for (int i = 0; i < 5; i++) {
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+            final CompletableFuture<String> result = hedger.execute(() -> attempt);
+            Thread.sleep(20);
+            attempt.completeExceptionally(new IllegalStateException());
+            assertThat(result.isCompletedExceptionally()).isTrue();
+        }
+
+        assertThat(hedger.getDelay()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void percentile() {
+        assertThat(catchThrowable(() -> new LatencyReservoir(10, 0, 1))).isInstanceOf(IllegalArgumentException.class);
+
+        final LatencyReservoir reservoir = new LatencyReservoir(10, 0.01, 1);
+        reservoir.record(5);
+
+        assertThat(reservoir.getPercentile()).isEqualTo(5);
+    }
+
+    @Test
+    public void failure() {
+        final Hedger hedger = new Hedger(HedgePolicy.builder().minSamples(1).minDelay(1_000).build());
+        hedger.execute(() -> CompletableFuture.completedFuture("ok"));
+
+        final CompletableFuture<String> attempt = new CompletableFuture<>();
+        final CompletableFuture<String> result = hedger.execute(() -> attempt);
+
+        // Failure is not hedged, it is up to the retry policy
+        attempt.completeExceptionally(new IllegalStateException());
+        assertThat(result.isCompletedExceptionally()).isTrue();
+    }
+}
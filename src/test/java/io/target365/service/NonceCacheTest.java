@@ -0,0 +1,110 @@
+package io.target365.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class NonceCacheTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    public void test() {
+        final NonceCache nonces = new NonceCache(new MutableClock(NOW), NonceCache.DEFAULT_WINDOW, NonceCache.DEFAULT_MAX_SIZE);
+
+        assertThat(nonces.add("TestKey", "nonce", NOW - 10)).isTrue();
+        assertThat(nonces.add("TestKey", "nonce", NOW - 10)).isFalse();
+        assertThat(nonces.add("OtherKey", "nonce", NOW - 10)).isTrue();
+        assertThat(nonces.add("TestKey", "other", NOW - 10)).isTrue();
+
+        // Timestamps out of the window cannot be checked, so they are rejected
+        assertThat(nonces.add("TestKey", "old", NOW - NonceCache.DEFAULT_WINDOW - 1)).isFalse();
+        assertThat(nonces.add("TestKey", "future", NOW + 3_600)).isFalse();
+        assertThat(nonces.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void rotation() {
+        final MutableClock clock = new MutableClock(NOW);
+        final NonceCache nonces = new NonceCache(clock, 60, NonceCache.DEFAULT_MAX_SIZE);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(nonces.add("TestKey", "nonce" + i, NOW - i % 60)).isTrue();
+        }
+
+        assertThat(nonces.size()).isEqualTo(1_000);
+
+        // Buckets of requests which are too old to be accepted are dropped when their slots are reused
+        clock.seconds = NOW + 120;
+
+        for (int i = 0; i < 60; i++) {
+            assertThat(nonces.add("TestKey", "nonce" + i, NOW + 120 - i)).isTrue();
+        }
+
+        assertThat(nonces.size()).isEqualTo(60);
+    }
+
+    @Test
+    public void maxSize() {
+        final NonceCache nonces = new NonceCache(new MutableClock(NOW), NonceCache.DEFAULT_WINDOW, 100);
+
+        IntStream.range(0, 100).forEach(i -> assertThat(nonces.add("TestKey", "nonce" + i, NOW)).isTrue());
+
+        assertThat(nonces.add("TestKey", "nonce100", NOW)).isFalse();
+        assertThat(nonces.size()).isEqualTo(100);
+    }
+
+    @Test
+    public void concurrent() {
+        final NonceCache nonces = new NonceCache();
+        final long now = System.currentTimeMillis() / 1_000;
+        final AtomicInteger added = new AtomicInteger();
+
+        // Every nonce is added by eight threads at once, and only one of them succeeds
+        IntStream.range(0, 80_000).parallel().forEach(i -> {
+            if (nonces.add("TestKey", "nonce" + i / 8, now)) {
+                added.incrementAndGet();
+            }
+        });
+
+        assertThat(added.get()).isEqualTo(10_000);
+        assertThat(nonces.size()).isEqualTo(10_000);
+    }
+
+    /**
+     * Clock which is moved by the test
+     */
+    private static final class MutableClock extends Clock {
+
+        private volatile long seconds;
+
+        private MutableClock(final long seconds) {
+            this.seconds = seconds;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochSecond(seconds);
+        }
+    }
+}
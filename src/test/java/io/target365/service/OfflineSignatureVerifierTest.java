@@ -0,0 +1,254 @@
+package io.target365.service;
+
+import io.target365.client.AsyncPublicKeysClient;
+import io.target365.client.OfflineSignatureVerifier;
+import io.target365.dto.PublicKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnit4.class)
+public class OfflineSignatureVerifierTest extends ClientTest {
+
+    private static final String URI = "https://example.com/callback";
+    private static final String CONTENT = "{\"transactionId\":\"1\"}";
+
+    private Signer signer;
+    private StubPublicKeysClient client;
+
+    @Before
+    public void before() throws Exception {
+        this.signer = EcdsaSigner.getInstance(getPrivateKeyAsString());
+        this.client = new StubPublicKeysClient(getPublicKeyAsString());
+    }
+
+    @Test
+    public void test() throws Exception {
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.singletonList("ServerKey"))) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ServerKey", CONTENT))).isTrue();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ClientKey", CONTENT))).isTrue();
+            assertThat(verifier.verify("POST", URI, "{}", sign("ServerKey", CONTENT))).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, "ServerKey:1:nonce:sign")).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, "invalid")).isFalse();
+            assertThat(client.fetches.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void unknownKey() throws Exception {
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.emptyList())) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            final CompletableFuture<PublicKey> fetch = new CompletableFuture<>();
+            client.pending.put("OtherKey", fetch);
+
+            // Unknown key is rejected and fetched once in the background
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("OtherKey", CONTENT))).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("OtherKey", CONTENT))).isFalse();
+            assertThat(client.fetches.get()).isEqualTo(1);
+
+            fetch.complete(client.publicKey("OtherKey"));
+
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("OtherKey", CONTENT))).isTrue();
+
+            // Missing key is not fetched again until the next reload
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("MissingKey", CONTENT))).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("MissingKey", CONTENT))).isFalse();
+            assertThat(client.fetches.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void refresh() throws Exception {
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.singletonList("ServerKey"))) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            // Keys which could not be reloaded are kept
+            client.failing = true;
+            assertThatThrownBy(() -> verifier.refresh().get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ServerKey", CONTENT))).isTrue();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ClientKey", CONTENT))).isTrue();
+
+            // Keys which are no longer found are dropped
+            client.failing = false;
+            client.deleted.add("ServerKey");
+            client.deleted.add("ClientKey");
+            verifier.refresh().get(5, TimeUnit.SECONDS);
+
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ServerKey", CONTENT))).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ClientKey", CONTENT))).isFalse();
+        }
+    }
+
+    @Test
+    public void fetchDuringRefresh() throws Exception {
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.emptyList())) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            final CompletableFuture<List<PublicKey>> clientKeys = new CompletableFuture<>();
+            client.clientKeys = clientKeys;
+            final CompletableFuture<Void> refresh = verifier.refresh();
+
+            final CompletableFuture<PublicKey> fetch = new CompletableFuture<>();
+            client.pending.put("OtherKey", fetch);
+
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("OtherKey", CONTENT))).isFalse();
+            fetch.complete(client.publicKey("OtherKey"));
+            clientKeys.complete(Collections.singletonList(client.publicKey("ClientKey")));
+            refresh.get(5, TimeUnit.SECONDS);
+
+            // Key fetched while the reload was in flight is kept
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("OtherKey", CONTENT))).isTrue();
+        }
+    }
+
+    @Test
+    public void scheduled() throws Exception {
+        final AtomicInteger reloads = new AtomicInteger();
+
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.singletonList("ServerKey"),
+                50, TimeUnit.MILLISECONDS, null, task -> {
+                    reloads.incrementAndGet();
+                    new Thread(task).start();
+                })) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            client.broken = true;
+            Thread.sleep(500);
+
+            // Reloads run on the executor and keep running after one of them has thrown
+            assertThat(reloads.get()).isGreaterThan(2);
+        }
+    }
+
+    @Test
+    public void clientKey() throws Exception {
+        client.clientKeys = CompletableFuture.completedFuture(Collections.emptyList());
+
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.emptyList())) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ClientKey", CONTENT))).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ClientKey", CONTENT))).isTrue();
+
+            // Client key fetched by name is not reloaded as a server key
+            final int fetches = client.fetches.get();
+            verifier.refresh().get(5, TimeUnit.SECONDS);
+
+            assertThat(client.fetches.get()).isEqualTo(fetches);
+        }
+    }
+
+    @Test
+    public void maxFetches() throws Exception {
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.emptyList())) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            for (int i = 0; i < 100; i++) {
+                client.pending.put("OtherKey" + i, new CompletableFuture<>());
+                assertThat(verifier.verify("POST", URI, CONTENT, sign("OtherKey" + i, CONTENT))).isFalse();
+            }
+
+            // Requests signed with unknown keys do not start more fetches than the limit
+            assertThat(client.fetches.get()).isLessThan(100);
+        }
+    }
+
+    @Test
+    public void replay() throws Exception {
+        try (OfflineSignatureVerifier verifier = OfflineSignatureVerifier.getInstance(client, Collections.singletonList("ServerKey"),
+                OfflineSignatureVerifier.DEFAULT_REFRESH_INTERVAL, TimeUnit.MILLISECONDS, new NonceCache())) {
+            verifier.preloaded().get(5, TimeUnit.SECONDS);
+
+            final String header = sign("ServerKey", CONTENT);
+
+            assertThat(verifier.verify("POST", URI, CONTENT, header)).isTrue();
+            assertThat(verifier.verify("POST", URI, CONTENT, header)).isFalse();
+            assertThat(verifier.verify("POST", URI, CONTENT, sign("ServerKey", CONTENT))).isTrue();
+        }
+    }
+
+    private String sign(final String keyName, final String content) {
+        final String header = new EcdsaAuthorizationService().signHeader(signer, keyName, "POST", URI, content);
+        return header.substring("HMAC ".length());
+    }
+
+    /**
+     * Client which has a server key and a client key, both with the test key
+     */
+    private static final class StubPublicKeysClient implements AsyncPublicKeysClient {
+
+        private final String publicKeyString;
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final Map<String, CompletableFuture<PublicKey>> pending = new ConcurrentHashMap<>();
+        private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        private volatile CompletableFuture<List<PublicKey>> clientKeys;
+        private volatile boolean failing;
+        private volatile boolean broken;
+
+        private StubPublicKeysClient(final String publicKeyString) {
+            this.publicKeyString = publicKeyString;
+        }
+
+        private PublicKey publicKey(final String keyName) {
+            return new PublicKey().setName(keyName).setPublicKeyString(publicKeyString);
+        }
+
+        private <T> CompletableFuture<T> failed() {
+            final CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException());
+            return future;
+        }
+
+        private PublicKey existing(final String keyName, final String expected) {
+            return expected.equals(keyName) && !deleted.contains(keyName) ? publicKey(keyName) : null;
+        }
+
+        @Override
+        public CompletableFuture<PublicKey> getServerPublicKey(final String keyName) {
+            fetches.incrementAndGet();
+            return failing ? failed() : pending.getOrDefault(keyName, CompletableFuture.completedFuture(existing(keyName, "ServerKey")));
+        }
+
+        @Override
+        public CompletableFuture<List<PublicKey>> getClientPublicKeys() {
+            if (broken) {
+                throw new IllegalStateException();
+            }
+
+            if (failing) {
+                return failed();
+            }
+
+            return Optional.ofNullable(clientKeys).orElseGet(() -> CompletableFuture.completedFuture(
+                    deleted.contains("ClientKey") ? Collections.emptyList() : Collections.singletonList(publicKey("ClientKey"))));
+        }
+
+        @Override
+        public CompletableFuture<PublicKey> getClientPublicKey(final String keyName) {
+            return failing ? failed() : CompletableFuture.completedFuture(existing(keyName, "ClientKey"));
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteClientPublicKey(final String keyName) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
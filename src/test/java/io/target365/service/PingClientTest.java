@@ -12,16 +12,27 @@ import static org.assertj.core.api.Assertions.assertThat;
 @RunWith(JUnit4.class)
 public class PingClientTest extends ClientTest {
 
+    private Target365Client client;
     private PingClient pingClient;
 
     @Before
     public void before() throws Exception {
-        this.pingClient = Target365Client.getInstance(getPrivateKeyAsString(),
+        this.client = Target365Client.getInstance(getPrivateKeyAsString(),
                 new Target365Client.Parameters("https://test.target365.io/", "JavaSdkTest2024"));
+        this.pingClient = client;
     }
 
     @Test
     public void test() throws Exception {
         assertThat(pingClient.getPing().get()).isEqualTo("\"pong\"");
     }
+
+    @Test
+    public void warmUp() throws Exception {
+        assertThat(client.isReady()).isFalse();
+
+        client.warmUp(2).get();
+
+        assertThat(client.isReady()).isTrue();
+    }
 }
@@ -0,0 +1,76 @@
+package io.target365.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class PrecomputedEcdsaSignerTest extends ClientTest {
+
+    private Verifier verifier;
+
+    @Before
+    public void before() throws Exception {
+        this.verifier = EcdsaVerifier.getInstance(getPublicKeyAsString());
+    }
+
+    @Test
+    public void test() throws Exception {
+        final PrecomputedEcdsaSigner signer = PrecomputedEcdsaSigner.getInstance(getPrivateKeyAsString(), 16, Runnable::run);
+        final String message = "Test Message";
+
+        assertThat(signer.getPooled()).isEqualTo(16);
+        assertThat(verifier.verify(message, signer.sign(message))).isTrue();
+        assertThat(signer.getPooled()).isEqualTo(15);
+    }
+
+    @Test
+    public void emptyPool() throws Exception {
+        // Background task never runs, so every nonce is computed by the signing thread
+        final PrecomputedEcdsaSigner signer = PrecomputedEcdsaSigner.getInstance(getPrivateKeyAsString(), 16, command -> {
+        });
+        final String message = "Test Message";
+
+        assertThat(signer.getPooled()).isZero();
+        assertThat(verifier.verify(message, signer.sign(message))).isTrue();
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final PrecomputedEcdsaSigner signer = PrecomputedEcdsaSigner.getInstance(getPrivateKeyAsString(), 32, executor);
+
+        try {
+            final List<Callable<String>> tasks = IntStream.range(0, 200).mapToObj(i -> (Callable<String>) () -> {
+                final String message = "Test Message " + i;
+                return verifier.verify(message, signer.sign(message)) ? message : null;
+            }).collect(Collectors.toList());
+
+            for (final Future<String> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isNotNull();
+            }
+
+            // Nonces are never shared, so no two signatures have the same r
+            final List<String> rs = IntStream.range(0, 200).mapToObj(i -> signer.sign("Same Message").substring(0, 43))
+                .distinct().collect(Collectors.toList());
+            assertThat(rs).hasSize(200);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(signer.getPooled()).isBetween(0, 32);
+    }
+}
@@ -0,0 +1,37 @@
+package io.target365.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class RandomNonceGeneratorTest {
+
+    private final NonceGenerator nonceGenerator = RandomNonceGenerator.getInstance();
+
+    @Test
+    public void format() {
+        final String nonce = nonceGenerator.next();
+        final UUID uuid = UUID.fromString(nonce);
+
+        assertThat(nonce).hasSize(36).isEqualTo(uuid.toString());
+        assertThat(uuid.version()).isEqualTo(4);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    public void unique() {
+        final Set<String> nonces = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> nonces.add(nonceGenerator.next()));
+
+        assertThat(nonces).hasSize(100_000);
+    }
+}
@@ -0,0 +1,93 @@
+package io.target365.service;
+
+import io.target365.exception.RateLimitExceededException;
+import io.target365.transport.RateLimitPolicy;
+import io.target365.transport.RateLimiter;
+import io.target365.transport.TokenBucket;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class RateLimiterTest {
+
+    @Test
+    public void tokenBucket() {
+        final TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertThat(bucket.tryAcquire(2)).isTrue();
+        assertThat(bucket.tryAcquire(1)).isTrue();
+        assertThat(bucket.tryAcquire(1)).isFalse();
+        assertThat(bucket.reserve(1, Long.MAX_VALUE)).isPositive();
+    }
+
+    @Test
+    public void oversized() throws Exception {
+        final TokenBucket bucket = new TokenBucket(1, 3);
+
+        // More permits than the burst are taken from a full bucket, later calls wait until they are paid off
+        assertThat(bucket.tryAcquire(5)).isTrue();
+        assertThat(bucket.tryAcquire(1)).isFalse();
+        assertThat(bucket.reserve(1, Long.MAX_VALUE)).isGreaterThan(2_000_000_000L);
+
+        final RateLimiter rateLimiter = new RateLimiter("OUT_MESSAGES", RateLimitPolicy.builder()
+                .permitsPerSecond(1).burst(1).mode(RateLimitPolicy.Mode.FAIL_FAST).build());
+
+        assertThat(rateLimiter.execute(null, 100, () -> CompletableFuture.completedFuture("ok")).get()).isEqualTo("ok");
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        final RateLimiter rateLimiter = new RateLimiter("STREX", RateLimitPolicy.builder()
+                .permitsPerSecond(1).burst(1).mode(RateLimitPolicy.Mode.QUEUE).build());
+
+        assertThat(rateLimiter.execute(null, 1, () -> CompletableFuture.completedFuture("first")).get()).isEqualTo("first");
+
+        // Permits of a cancelled queued call are given back, so the next call does not wait for them
+        final CompletableFuture<String> queued = rateLimiter.execute(null, 1, () -> CompletableFuture.completedFuture("queued"));
+        queued.cancel(false);
+
+        final long start = System.nanoTime();
+        rateLimiter.execute(null, 1, () -> CompletableFuture.completedFuture("next")).get();
+
+        assertThat(System.nanoTime() - start).isLessThan(1_500_000_000L);
+    }
+
+    @Test
+    public void failFast() throws Exception {
+        final RateLimiter rateLimiter = new RateLimiter("OUT_MESSAGES", RateLimitPolicy.builder()
+                .permitsPerSecond(1).burst(1).mode(RateLimitPolicy.Mode.FAIL_FAST).perSender(true).build());
+
+        assertThat(rateLimiter.execute("sender1", 1, () -> CompletableFuture.completedFuture("ok")).get()).isEqualTo("ok");
+        assertThat(catchThrowable(() -> rateLimiter.execute("sender1", 1, () -> CompletableFuture.completedFuture("ok")).get()))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(RateLimitExceededException.class);
+
+        // Every sender has its own budget
+        assertThat(rateLimiter.execute("sender2", 1, () -> CompletableFuture.completedFuture("ok")).get()).isEqualTo("ok");
+    }
+
+    @Test
+    public void queue() throws Exception {
+        final RateLimiter rateLimiter = new RateLimiter("STREX", RateLimitPolicy.builder()
+                .permitsPerSecond(20).burst(1).mode(RateLimitPolicy.Mode.QUEUE).build());
+        final List<CompletableFuture<Long>> results = new ArrayList<>();
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            results.add(rateLimiter.execute(null, 1, () -> CompletableFuture.completedFuture(System.nanoTime() - start)));
+        }
+
+        // Calls over the rate are started later, one per 50 ms
+        assertThat(results.get(0).isDone()).isTrue();
+        assertThat(results.get(2).isDone()).isFalse();
+        assertThat(results.get(2).get()).isGreaterThanOrEqualTo(90_000_000L);
+    }
+}
@@ -0,0 +1,141 @@
+package io.target365.service;
+
+import io.target365.transport.CachePolicy;
+import io.target365.transport.RefreshingCache;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnit4.class)
+public class RefreshingCacheTest {
+
+    @Test
+    public void test() throws Exception {
+        final RefreshingCache<String> cache = new RefreshingCache<>(CachePolicy.builder().build());
+        final List<CompletableFuture<String>> loads = new ArrayList<>();
+
+        final CompletableFuture<String> first = cache.get("TestKey", () -> newLoad(loads));
+        final CompletableFuture<String> second = cache.get("TestKey", () -> newLoad(loads));
+
+        // Concurrent callers share a single load, which cancelled callers do not cancel
+        assertThat(loads).hasSize(1);
+        first.cancel(false);
+
+        loads.get(0).complete("key");
+
+        assertThat(second.get()).isEqualTo("key");
+        assertThat(cache.get("TestKey", () -> newLoad(loads)).get()).isEqualTo("key");
+        assertThat(cache.getIfPresent("TestKey")).isEqualTo("key");
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    public void failure() throws Exception {
+        final RefreshingCache<String> cache = new RefreshingCache<>(CachePolicy.builder().build());
+        final List<CompletableFuture<String>> loads = new ArrayList<>();
+
+        final CompletableFuture<String> failed = cache.get("TestKey", () -> newLoad(loads));
+        loads.get(0).completeExceptionally(new IllegalStateException());
+
+        assertThatThrownBy(failed::get).isInstanceOf(ExecutionException.class);
+
+        // Failed load is not cached
+        final CompletableFuture<String> next = cache.get("TestKey", () -> newLoad(loads));
+        loads.get(1).complete("key");
+
+        assertThat(next.get()).isEqualTo("key");
+    }
+
+    @Test
+    public void refresh() throws Exception {
+        final RefreshingCache<String> cache = new RefreshingCache<>(CachePolicy.builder().refreshAfter(50).expireAfter(60_000).build());
+        final List<CompletableFuture<String>> loads = new ArrayList<>();
+
+        cache.get("TestKey", () -> newLoad(loads));
+        loads.get(0).complete("old");
+
+        Thread.sleep(100);
+
+        // Old value is returned while a single refresh is in flight
+        assertThat(cache.get("TestKey", () -> newLoad(loads)).get()).isEqualTo("old");
+        assertThat(cache.get("TestKey", () -> newLoad(loads)).get()).isEqualTo("old");
+        assertThat(loads).hasSize(2);
+
+        loads.get(1).complete("new");
+
+        assertThat(cache.get("TestKey", () -> newLoad(loads)).get()).isEqualTo("new");
+        assertThat(loads).hasSize(2);
+    }
+
+    @Test
+    public void absent() throws Exception {
+        final RefreshingCache<String> cache = new RefreshingCache<>(CachePolicy.builder().refreshAfter(50).expireAfter(60_000).build(),
+                t -> t instanceof IllegalArgumentException);
+        final List<CompletableFuture<String>> loads = new ArrayList<>();
+
+        cache.get("TestKey", () -> newLoad(loads));
+        loads.get(0).complete("old");
+
+        Thread.sleep(100);
+
+        cache.get("TestKey", () -> newLoad(loads));
+        loads.get(1).completeExceptionally(new IllegalStateException());
+
+        // Transient failure keeps the old value
+        assertThat(cache.getIfPresent("TestKey")).isEqualTo("old");
+
+        cache.get("TestKey", () -> newLoad(loads));
+        loads.get(2).completeExceptionally(new IllegalArgumentException());
+
+        // Value which no longer exists is dropped at once
+        assertThat(cache.getIfPresent("TestKey")).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void expiry() throws Exception {
+        final RefreshingCache<String> cache = new RefreshingCache<>(CachePolicy.builder().refreshAfter(50).expireAfter(50).build());
+        final List<CompletableFuture<String>> loads = new ArrayList<>();
+
+        cache.get("TestKey", () -> newLoad(loads));
+        loads.get(0).complete("old");
+
+        Thread.sleep(100);
+
+        // Expired value is not returned
+        assertThat(cache.getIfPresent("TestKey")).isNull();
+
+        final CompletableFuture<String> next = cache.get("TestKey", () -> newLoad(loads));
+
+        assertThat(next.isDone()).isFalse();
+        loads.get(1).complete("new");
+        assertThat(next.get()).isEqualTo("new");
+    }
+
+    @Test
+    public void maxSize() throws Exception {
+        final RefreshingCache<String> cache = new RefreshingCache<>(CachePolicy.builder().maxSize(2).build());
+
+        for (int i = 0; i < 10; i++) {
+            final String key = "TestKey" + i;
+            assertThat(cache.get(key, () -> CompletableFuture.completedFuture(key)).get()).isEqualTo(key);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent("TestKey9")).isEqualTo("TestKey9");
+    }
+
+    private static CompletableFuture<String> newLoad(final List<CompletableFuture<String>> loads) {
+        final CompletableFuture<String> load = new CompletableFuture<>();
+        loads.add(load);
+        return load;
+    }
+}
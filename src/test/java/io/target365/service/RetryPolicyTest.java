@@ -0,0 +1,113 @@
+package io.target365.service;
+
+import io.target365.exception.InvalidResponseException;
+import io.target365.transport.RetryBudget;
+import io.target365.transport.RetryPolicy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@RunWith(JUnit4.class)
+public class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = RetryPolicy.builder().maxAttempts(3).initialBackoff(1).maxBackoff(5).build();
+
+    @Test
+    public void retry() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = retryPolicy.execute(failing(attempts, 2, new IOException("Connection reset")), true).get();
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void executor() throws Exception {
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final Executor executor = task -> new Thread(task, "retry-executor").start();
+
+        retryPolicy.execute(() -> {
+            threads.add(Thread.currentThread().getName());
+            return threads.size() < 2 ? failed(new IOException("Connection reset")) : CompletableFuture.completedFuture("ok");
+        }, true, executor).get();
+
+        // Retry is started by the executor, the shared scheduler thread only hands it over
+        assertThat(threads).contains("retry-executor");
+    }
+
+    @Test
+    public void attempts() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final Throwable throwable = catchThrowable(() -> retryPolicy.execute(failing(attempts, 5, response(503)), true).get());
+
+        assertThat(throwable).isInstanceOf(ExecutionException.class).hasRootCauseInstanceOf(InvalidResponseException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void notRetryable() {
+        final AtomicInteger notFound = new AtomicInteger();
+        final AtomicInteger notIdempotent = new AtomicInteger();
+
+        catchThrowable(() -> retryPolicy.execute(failing(notFound, 1, response(404)), true).get());
+        catchThrowable(() -> retryPolicy.execute(failing(notIdempotent, 1, new IOException("Connection reset")), false).get());
+
+        assertThat(notFound.get()).isEqualTo(1);
+        assertThat(notIdempotent.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void budget() throws Exception {
+        final RetryBudget budget = new RetryBudget(0, 1);
+        final RetryPolicy retryPolicy = this.retryPolicy.toBuilder().budget(budget).build();
+        final AtomicInteger first = new AtomicInteger();
+        final AtomicInteger second = new AtomicInteger();
+
+        // Only one retry is left in the budget, so the second call fails on the first attempt
+        assertThat(retryPolicy.execute(failing(first, 1, new IOException("Connection reset")), true).get()).isEqualTo("ok");
+        catchThrowable(() -> retryPolicy.execute(failing(second, 1, new IOException("Connection reset")), true).get());
+
+        assertThat(first.get()).isEqualTo(2);
+        assertThat(second.get()).isEqualTo(1);
+        assertThat(budget.getAvailableRetries()).isEqualTo(0);
+    }
+
+    private static Supplier<CompletableFuture<String>> failing(final AtomicInteger attempts, final int failures, final Throwable throwable) {
+        return () -> {
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+
+            if (attempts.incrementAndGet() <= failures) {
+                attempt.completeExceptionally(new RuntimeException(throwable));
+            } else {
+                attempt.complete("ok");
+            }
+
+            return attempt;
+        };
+    }
+
+    private static CompletableFuture<String> failed(final Throwable throwable) {
+        final CompletableFuture<String> attempt = new CompletableFuture<>();
+        attempt.completeExceptionally(new RuntimeException(throwable));
+
+        return attempt;
+    }
+
+    private static InvalidResponseException response(final int code) {
+        return new InvalidResponseException(code, "", "");
+    }
+}
@@ -5,6 +5,20 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import javax.xml.bind.DatatypeConverter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @RunWith(JUnit4.class)
@@ -25,4 +39,51 @@ public class SignAndVerifyTest extends ClientTest {
 
         assertThat(verifier.verify(message, signer.sign(message))).isTrue();
     }
+
+    @Test
+    public void concurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Callable<Boolean>> tasks = IntStream.range(0, 200).mapToObj(i -> (Callable<Boolean>) () -> {
+                final String message = "Test Message " + i;
+                return verifier.verify(message, signer.sign(message));
+            }).collect(Collectors.toList());
+
+            for (final Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void header() throws Exception {
+        final String content = "{\"sender\":\"Target365\",\"content\":\"Æøå\"}";
+        final String header = new EcdsaAuthorizationService().signHeaderBytes(signer, "TestKey", "POST",
+            "https://Test.Target365.io/api/out-messages", content.getBytes(StandardCharsets.UTF_8));
+        final String[] parts = header.substring("HMAC ".length()).split(":");
+        final String hash = DatatypeConverter.printBase64Binary(MessageDigest.getInstance("SHA-256")
+            .digest(content.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(parts[0]).isEqualTo("TestKey");
+        assertThat(verifier.verify("post" + "https://test.target365.io/api/out-messages" + parts[1] + parts[2] + hash, parts[3])).isTrue();
+        assertThat(new EcdsaAuthorizationService().verifyHeader(verifier, "POST", "https://Test.Target365.io/api/out-messages",
+            Long.parseLong(parts[1]), parts[2], content, parts[3])).isTrue();
+    }
+
+    @Test
+    public void clockAndNonce() {
+        final AuthorizationService authorizationService = new EcdsaAuthorizationService(
+            Clock.fixed(Instant.ofEpochSecond(1700000000L, 999_000_000L), ZoneOffset.UTC), () -> "nonce");
+        final String header = authorizationService.signHeader(signer, "TestKey", "GET", "https://test.target365.io/api/ping", "");
+
+        assertThat(header).startsWith("HMAC TestKey:1700000000:nonce:");
+        assertThat(verifier.verify("gethttps://test.target365.io/api/ping1700000000nonce", header.substring(header.lastIndexOf(':') + 1))).isTrue();
+
+        // Request without a body is signed like an empty one
+        assertThat(authorizationService.signHeader(signer, "TestKey", "GET", "https://test.target365.io/api/ping", null))
+            .startsWith("HMAC TestKey:1700000000:nonce:");
+    }
 }
@@ -0,0 +1,64 @@
+package io.target365.service;
+
+import io.target365.transport.SingleFlight;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class SingleFlightTest {
+
+    @Test
+    public void test() throws Exception {
+        final SingleFlight singleFlight = new SingleFlight();
+        final List<CompletableFuture<Object>> calls = new ArrayList<>();
+
+        final CompletableFuture<Object> first = singleFlight.execute("api/strex/transactions/1", () -> newCall(calls));
+        final CompletableFuture<Object> second = singleFlight.execute("api/strex/transactions/1", () -> newCall(calls));
+        final CompletableFuture<Object> other = singleFlight.execute("api/strex/transactions/2", () -> newCall(calls));
+
+        assertThat(calls).hasSize(2);
+
+        // Both callers get the same result of a single call
+        final Object result = new Object();
+        calls.get(0).complete(result);
+
+        assertThat(first.get()).isSameAs(result);
+        assertThat(second.get()).isSameAs(result);
+        assertThat(other.isDone()).isFalse();
+        assertThat(singleFlight.getInFlight()).isEqualTo(1);
+
+        // Completed call is not shared with later callers
+        singleFlight.execute("api/strex/transactions/1", () -> newCall(calls));
+        assertThat(calls).hasSize(3);
+    }
+
+    @Test
+    public void cancel() {
+        final SingleFlight singleFlight = new SingleFlight();
+        final List<CompletableFuture<Object>> calls = new ArrayList<>();
+
+        final CompletableFuture<Object> first = singleFlight.execute("api/keywords/1", () -> newCall(calls));
+        final CompletableFuture<Object> second = singleFlight.execute("api/keywords/1", () -> newCall(calls));
+
+        // Shared call is cancelled only once all of its callers cancelled
+        first.cancel(false);
+        assertThat(calls.get(0).isCancelled()).isFalse();
+
+        second.cancel(false);
+        assertThat(calls.get(0).isCancelled()).isTrue();
+        assertThat(singleFlight.getInFlight()).isEqualTo(0);
+    }
+
+    private static CompletableFuture<Object> newCall(final List<CompletableFuture<Object>> calls) {
+        final CompletableFuture<Object> call = new CompletableFuture<>();
+        calls.add(call);
+        return call;
+    }
+}
@@ -0,0 +1,138 @@
+package io.target365.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.target365.transport.BlockingTransport;
+import io.target365.transport.NonBlockingTransport;
+import io.target365.transport.Transport;
+import io.target365.util.Util;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnit4.class)
+public class TransportTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch received = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService executor;
+    private OkHttpClient okHttpClient;
+
+    @Before
+    public void before() throws Exception {
+        this.executor = Executors.newCachedThreadPool(task -> new Thread(task, "TestExecutor"));
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.okHttpClient = new OkHttpClient();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        server.createContext("/fast", exchange -> respond(exchange, "pong"));
+        server.createContext("/slow", exchange -> {
+            received.countDown();
+            Util.suppress(() -> release.await(5, TimeUnit.SECONDS));
+            respond(exchange, "pong");
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @After
+    public void after() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        executor.shutdownNow();
+        okHttpClient.dispatcher().executorService().shutdown();
+    }
+
+    @Test
+    public void nonBlocking() throws Exception {
+        assertThat(new NonBlockingTransport().execute(newCall("/fast"), TransportTest::body).get(5, TimeUnit.SECONDS)).isEqualTo("pong");
+    }
+
+    @Test
+    public void handOff() throws Exception {
+        // Response is handled on the executor, not on the dispatcher thread which received it
+        assertThat(new NonBlockingTransport(executor).execute(newCall("/fast"), response -> {
+            response.close();
+            return Thread.currentThread().getName();
+        }).get(5, TimeUnit.SECONDS)).isEqualTo("TestExecutor");
+    }
+
+    @Test
+    public void rejected() {
+        final CompletableFuture<String> future = new NonBlockingTransport(task -> {
+            throw new RejectedExecutionException();
+        }).execute(newCall("/fast"), TransportTest::body);
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void blocking() throws Exception {
+        assertThat(new BlockingTransport(executor).execute(newCall("/fast"), TransportTest::body).get(5, TimeUnit.SECONDS)).isEqualTo("pong");
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        assertCancelled(new NonBlockingTransport());
+    }
+
+    @Test
+    public void cancelBlocking() throws Exception {
+        assertCancelled(new BlockingTransport(executor));
+    }
+
+    private void assertCancelled(final Transport transport) throws Exception {
+        final Call call = newCall("/slow");
+        final CompletableFuture<String> future = transport.execute(call, TransportTest::body);
+
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+        future.cancel(true);
+
+        // Cancelling the future cancels the call, which releases the connection
+        assertThat(call.isCanceled()).isTrue();
+        assertThat(future.isCancelled()).isTrue();
+    }
+
+    private Call newCall(final String path) {
+        return okHttpClient.newCall(new Request.Builder().url("http://127.0.0.1:" + server.getAddress().getPort() + path).build());
+    }
+
+    private static String body(final Response response) {
+        return Util.wrap(() -> response.body().string());
+    }
+
+    private static void respond(final HttpExchange exchange, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}